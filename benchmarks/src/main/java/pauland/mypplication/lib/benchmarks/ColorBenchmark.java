@@ -0,0 +1,63 @@
+package pauland.mypplication.lib.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import pauland.mypplication.lib.ColorRamp;
+
+/**
+ * Per-frame cost of the color of the glyph: blended for each position, as the former
+ * <code>transitionColor</code> did, or read from the precomputed {@link ColorRamp}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorBenchmark
+{
+    // ColorRamp.SPACE_SRGB, SPACE_LINEAR_RGB and SPACE_HSV
+    @Param({"0", "1", "2"})
+    public int colorSpace;
+
+    private ColorRamp mRamp;
+    private float[]   mPositions;
+    private int       mIndex;
+
+    @Setup
+    public void setUp ()
+    {
+        mRamp = Glyphs.createColorRamp(colorSpace);
+        mPositions = Glyphs.createPositions();
+    }
+
+    private float nextPosition ()
+    {
+        mIndex = (mIndex + 1) & (Glyphs.POSITION_COUNT - 1);
+        return mPositions[mIndex];
+    }
+
+    @Benchmark
+    public int interpolate ()
+    {
+        return ColorRamp.interpolate(nextPosition(), Glyphs.CLOSED_COLOR, Glyphs.OPENED_COLOR, colorSpace);
+    }
+
+    @Benchmark
+    public int ramp ()
+    {
+        return mRamp.get(nextPosition());
+    }
+}
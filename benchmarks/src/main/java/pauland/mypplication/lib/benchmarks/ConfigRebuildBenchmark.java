@@ -0,0 +1,88 @@
+package pauland.mypplication.lib.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import pauland.mypplication.lib.ColorRamp;
+import pauland.mypplication.lib.GlyphFrameTable;
+import pauland.mypplication.lib.GlyphGeometry;
+
+/**
+ * Cost of a configuration change: everything derived from the configuration is computed again.
+ * Each operation alternates between two configurations so nothing is skipped as unchanged.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigRebuildBenchmark
+{
+    // GlyphGeometry.STYLE_CROSS, STYLE_ARROW, STYLE_CARET and STYLE_DOTS
+    @Param({"0", "1", "2", "3"})
+    public int style;
+
+    @Param({"64", "256"})
+    public int frameCount;
+
+    private GlyphGeometry   mGeometry;
+    private ColorRamp       mRamp;
+    private GlyphFrameTable mFrameTable;
+    private boolean         mToggle;
+
+    @Setup
+    public void setUp ()
+    {
+        mGeometry = Glyphs.createGeometry(style, GlyphGeometry.DEFAULT_BAR_COUNT);
+        mRamp = Glyphs.createColorRamp(ColorRamp.SPACE_SRGB);
+        mFrameTable = new GlyphFrameTable(frameCount);
+        mFrameTable.rebuild(mGeometry, mRamp);
+    }
+
+    private void changeGeometry ()
+    {
+        mToggle = !mToggle;
+        mGeometry.setPaddingLR(mToggle ? Glyphs.PADDING_LR + 1 : Glyphs.PADDING_LR);
+    }
+
+    /**
+     * Keyframes of the geometry only.
+     */
+    @Benchmark
+    public float geometry ()
+    {
+        changeGeometry();
+        return mGeometry.getMaxDisplacement();
+    }
+
+    @Benchmark
+    public int colorRamp ()
+    {
+        mToggle = !mToggle;
+        mRamp.set(Glyphs.CLOSED_COLOR, mToggle ? Glyphs.OPENED_COLOR : Glyphs.CLOSED_COLOR, ColorRamp.SPACE_SRGB);
+        return mRamp.getMaxDelta();
+    }
+
+    /**
+     * Keyframes of the geometry, then every frame of the table.
+     */
+    @Benchmark
+    public GlyphFrameTable frameTable ()
+    {
+        changeGeometry();
+        mFrameTable.rebuild(mGeometry, mRamp);
+        return mFrameTable;
+    }
+}
@@ -0,0 +1,98 @@
+package pauland.mypplication.lib.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import pauland.mypplication.lib.ColorRamp;
+import pauland.mypplication.lib.GlyphFrameTable;
+import pauland.mypplication.lib.GlyphGeometry;
+
+/**
+ * Per-frame cost of the glyph geometry for each style: computed from the keyframes, read from a
+ * frame table, or blended with the next style while morphing to it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometryBenchmark
+{
+    // GlyphGeometry.STYLE_CROSS, STYLE_ARROW, STYLE_CARET and STYLE_DOTS
+    @Param({"0", "1", "2", "3"})
+    public int style;
+
+    @Param({"3", "5"})
+    public int barCount;
+
+    @Param({"64"})
+    public int frameCount;
+
+    private final float[] mBars = new float[GlyphGeometry.BUFFER_SIZE];
+    private GlyphGeometry   mGeometry, mMorphGeometry;
+    private GlyphFrameTable mFrameTable;
+    private float[]         mPositions;
+    private int             mIndex;
+
+    @Setup
+    public void setUp ()
+    {
+        mGeometry = Glyphs.createGeometry(style, barCount);
+        final ColorRamp ramp = Glyphs.createColorRamp(ColorRamp.SPACE_SRGB);
+        mFrameTable = new GlyphFrameTable(frameCount);
+        mFrameTable.rebuild(mGeometry, ramp);
+        mPositions = Glyphs.createPositions();
+
+        mMorphGeometry = Glyphs.createGeometry(style, barCount);
+        mMorphGeometry.morphToStyle((style + 1) % 4);
+    }
+
+    private float nextPosition ()
+    {
+        mIndex = (mIndex + 1) & (Glyphs.POSITION_COUNT - 1);
+        return mPositions[mIndex];
+    }
+
+    @Benchmark
+    public float[] compute ()
+    {
+        mGeometry.compute(nextPosition(), mBars);
+        return mBars;
+    }
+
+    /**
+     * A morph started by <code>morphToStyle</code>, moved forward every frame but never ended.
+     */
+    @Benchmark
+    public float[] morph ()
+    {
+        final float position = nextPosition();
+        mMorphGeometry.setMorphFraction(position / 2);
+        mMorphGeometry.compute(position, mBars);
+        return mBars;
+    }
+
+    @Benchmark
+    public int frameTableSnap ()
+    {
+        return mFrameTable.lookup(nextPosition(), false, mBars);
+    }
+
+    @Benchmark
+    public int frameTableInterpolated ()
+    {
+        return mFrameTable.lookup(nextPosition(), true, mBars);
+    }
+}
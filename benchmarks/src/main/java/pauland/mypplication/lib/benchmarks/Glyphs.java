@@ -0,0 +1,61 @@
+package pauland.mypplication.lib.benchmarks;
+
+import pauland.mypplication.lib.ColorRamp;
+import pauland.mypplication.lib.GlyphGeometry;
+
+/**
+ * The default glyph of the toggle (36x34 dip, paddings 8 and 10 dip, bars of 2 dip) on a xxhdpi
+ * screen, shared by the benchmarks.
+ */
+final class Glyphs
+{
+    static final int WIDTH      = 108;
+    static final int HEIGHT     = 102;
+    static final int PADDING_LR = 24;
+    static final int PADDING_TB = 30;
+    static final int BAR_HEIGHT = 6;
+
+    static final int CLOSED_COLOR = 0xFFFFFFFF;
+    static final int OPENED_COLOR = 0xFFE53935;
+
+    // Power of two, so the next position is a mask away
+    static final int POSITION_COUNT = 64;
+
+    private Glyphs ()
+    {
+    }
+
+    static GlyphGeometry createGeometry (int style, int barCount)
+    {
+        final GlyphGeometry geometry = new GlyphGeometry();
+        geometry.setStyle(style);
+        geometry.setBarCount(barCount);
+        geometry.setPaddingLR(PADDING_LR);
+        geometry.setPaddingTB(PADDING_TB);
+        geometry.setBarHeight(BAR_HEIGHT);
+        geometry.setBounds(0, 0, WIDTH, HEIGHT);
+        return geometry;
+    }
+
+    static ColorRamp createColorRamp (int colorSpace)
+    {
+        final ColorRamp ramp = new ColorRamp();
+        ramp.set(CLOSED_COLOR, OPENED_COLOR, colorSpace);
+        return ramp;
+    }
+
+    /**
+     * @return positions of a drawer opened then closed, not aligned on the frames of the tables
+     */
+    static float[] createPositions ()
+    {
+        final float[] positions = new float[POSITION_COUNT];
+        final int half = POSITION_COUNT / 2;
+        for (int i = 0; i < POSITION_COUNT; i++)
+        {
+            final float position = (i < half ? i : POSITION_COUNT - i) / (float) half;
+            positions[i] = Math.min(1, position * 0.997f + 0.001f);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,79 @@
+package pauland.mypplication.lib.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import pauland.mypplication.lib.GlyphProgressMapper;
+
+/**
+ * Cost of mapping a slide offset to the glyph position, as done by <code>onDrawerSlide</code>.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProgressMapperBenchmark
+{
+    @Param({"LEGACY", "LINEAR", "EASE_IN_OUT", "CUBIC_BEZIER"})
+    public String mapper;
+
+    private GlyphProgressMapper mMapper;
+    private float[]             mOffsets;
+    private int                 mIndex;
+    private float               mPosition;
+
+    @Setup
+    public void setUp ()
+    {
+        if ("LEGACY".equals(mapper))
+            mMapper = GlyphProgressMapper.LEGACY;
+        else if ("LINEAR".equals(mapper))
+            mMapper = GlyphProgressMapper.LINEAR;
+        else if ("EASE_IN_OUT".equals(mapper))
+            mMapper = GlyphProgressMapper.EASE_IN_OUT;
+        else
+            mMapper = GlyphProgressMapper.cubicBezier(0.4f, 0, 0.2f, 1);
+        mOffsets = Glyphs.createPositions();
+    }
+
+    private float nextOffset ()
+    {
+        mIndex = (mIndex + 1) & (Glyphs.POSITION_COUNT - 1);
+        return mOffsets[mIndex];
+    }
+
+    @Benchmark
+    public float map ()
+    {
+        mPosition = mMapper.map(mPosition, nextOffset());
+        return mPosition;
+    }
+
+    /**
+     * The mapping hard-coded in <code>onDrawerSlide</code> before the mappers, as a baseline. Does
+     * not depend on the mapper parameter.
+     */
+    @Benchmark
+    public float legacyInline ()
+    {
+        final float slideOffset = nextOffset();
+        if (slideOffset > 0.5f)
+            mPosition = Math.max(mPosition, Math.max(0.f, slideOffset - 0.5f) * 2);
+        else
+            mPosition = Math.min(mPosition, slideOffset * 2);
+        return mPosition;
+    }
+}
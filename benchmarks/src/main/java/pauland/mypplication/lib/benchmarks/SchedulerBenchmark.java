@@ -0,0 +1,128 @@
+package pauland.mypplication.lib.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import pauland.mypplication.lib.FrameClock;
+import pauland.mypplication.lib.GlyphAnimationScheduler;
+import pauland.mypplication.lib.GlyphAnimator;
+
+/**
+ * Cost of the {@link GlyphAnimationScheduler} with many glyphs animating at once, as in a list
+ * whose rows all expand. The animations are long enough to never end during a measurement.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark
+{
+    private static final long DURATION_MS       = 1000L * 1000 * 1000;
+    private static final long FRAME_DELAY_NANOS = 16 * 1000000L;
+
+    @Param({"100", "1000"})
+    public int glyphs;
+
+    private GlyphAnimationScheduler mScheduler;
+    private Glyph[]                 mGlyphs;
+    private long                    mFrameTimeNanos;
+    private int                     mIndex;
+
+    @Setup
+    public void setUp ()
+    {
+        // The benchmark runs the frames itself
+        mScheduler = new GlyphAnimationScheduler(new FrameClock()
+        {
+            @Override
+            public void postFrameCallback (Callback callback)
+            {
+            }
+
+            @Override
+            public void removeFrameCallback (Callback callback)
+            {
+            }
+        });
+        mGlyphs = new Glyph[glyphs];
+        for (int i = 0; i < glyphs; i++)
+        {
+            mGlyphs[i] = new Glyph();
+            mScheduler.animateTo(mGlyphs[i], 1, DURATION_MS);
+        }
+        // Starts the animations
+        mScheduler.doFrame(mFrameTimeNanos);
+    }
+
+    /**
+     * One frame moving every glyph.
+     */
+    @Benchmark
+    public int frame ()
+    {
+        mFrameTimeNanos += FRAME_DELAY_NANOS;
+        mScheduler.doFrame(mFrameTimeNanos);
+        return mScheduler.getAnimationCount();
+    }
+
+    /**
+     * Retarget the animation of one running glyph, as when a row is collapsed while expanding.
+     */
+    @Benchmark
+    public int retarget ()
+    {
+        mIndex = (mIndex + 1) % glyphs;
+        final Glyph glyph = mGlyphs[mIndex];
+        glyph.mTarget = glyph.mTarget == 1 ? 0.5f : 1;
+        mScheduler.animateTo(glyph, glyph.mTarget, DURATION_MS);
+        return mScheduler.getAnimationCount();
+    }
+
+    /**
+     * A visible glyph, redrawn for every position.
+     */
+    static final class Glyph implements GlyphAnimator.FrameTarget
+    {
+        float mPosition;
+        float mTarget = 1;
+        int   mDrawCount;
+
+        @Override
+        public float getPosition ()
+        {
+            return mPosition;
+        }
+
+        @Override
+        public void setPosition (float position)
+        {
+            mPosition = position;
+        }
+
+        @Override
+        public boolean isAnimationVisible ()
+        {
+            return true;
+        }
+
+        @Override
+        public void setPositionNow (float position)
+        {
+            mPosition = position;
+            mDrawCount++;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package pauland.mypplication.lib;
+
+/**
+ * {@link FrameClock} driven by the test: the posted callbacks only run when a frame is
+ * {@link #advance(long) advanced}, with the same {@link FrameCallbackQueue} as
+ * {@link ChoreographerFrameClock}.
+ */
+final class FakeFrameClock implements FrameClock
+{
+    private final FrameCallbackQueue mQueue = new FrameCallbackQueue();
+    private long                     mFrameTimeNanos;
+
+    @Override
+    public void postFrameCallback (Callback callback)
+    {
+        mQueue.post(callback);
+    }
+
+    @Override
+    public void removeFrameCallback (Callback callback)
+    {
+        mQueue.remove(callback);
+    }
+
+    /**
+     * @return number of callbacks waiting for the next frame
+     */
+    int getPendingCount ()
+    {
+        return mQueue.size();
+    }
+
+    long getFrameTimeNanos ()
+    {
+        return mFrameTimeNanos;
+    }
+
+    /**
+     * Run the next frame, <code>elapsedMs</code> after the previous one. The callbacks posted
+     * during the frame run at the next one.
+     */
+    void advance (long elapsedMs)
+    {
+        mFrameTimeNanos += elapsedMs * 1000000L;
+        mQueue.dispatch(mFrameTimeNanos);
+    }
+}
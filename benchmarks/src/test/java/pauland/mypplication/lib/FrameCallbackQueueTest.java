@@ -0,0 +1,119 @@
+package pauland.mypplication.lib;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The queue behind {@link ChoreographerFrameClock}, driven by a {@link FakeFrameClock}: every
+ * callback runs once per frame it was posted for, whatever is posted or removed meanwhile.
+ */
+public class FrameCallbackQueueTest
+{
+    private final FakeFrameClock mClock = new FakeFrameClock();
+
+    @Test
+    public void postedTwiceRunsOnce ()
+    {
+        final Counter counter = new Counter();
+        mClock.postFrameCallback(counter);
+        mClock.postFrameCallback(counter);
+        assertEquals(1, mClock.getPendingCount());
+
+        mClock.advance(16);
+        mClock.advance(16);
+        assertEquals(1, counter.mCount);
+    }
+
+    @Test
+    public void postedDuringItsFrameRunsNextFrame ()
+    {
+        final Counter counter = new Counter()
+        {
+            @Override
+            public void doFrame (long frameTimeNanos)
+            {
+                super.doFrame(frameTimeNanos);
+                mClock.postFrameCallback(this);
+            }
+        };
+        mClock.postFrameCallback(counter);
+
+        mClock.advance(16);
+        assertEquals(1, counter.mCount);
+        mClock.advance(16);
+        assertEquals(2, counter.mCount);
+    }
+
+    @Test
+    public void postedAgainBeforeItRanRunsOnce ()
+    {
+        // The first callback of the frame posts the second one, which did not run yet
+        final Counter second = new Counter();
+        final Counter first = new Counter()
+        {
+            @Override
+            public void doFrame (long frameTimeNanos)
+            {
+                super.doFrame(frameTimeNanos);
+                mClock.postFrameCallback(second);
+            }
+        };
+        mClock.postFrameCallback(first);
+        mClock.postFrameCallback(second);
+
+        mClock.advance(16);
+        assertEquals(1, second.mCount);
+        assertEquals(0, mClock.getPendingCount());
+        mClock.advance(16);
+        assertEquals(1, second.mCount);
+    }
+
+    @Test
+    public void removedBeforeItRanDoesNotRun ()
+    {
+        final Counter second = new Counter();
+        final Counter first = new Counter()
+        {
+            @Override
+            public void doFrame (long frameTimeNanos)
+            {
+                super.doFrame(frameTimeNanos);
+                mClock.removeFrameCallback(second);
+            }
+        };
+        mClock.postFrameCallback(first);
+        mClock.postFrameCallback(second);
+
+        mClock.advance(16);
+        assertEquals(1, first.mCount);
+        assertEquals(0, second.mCount);
+    }
+
+    @Test
+    public void removedThenPostedRunsOnce ()
+    {
+        final FrameCallbackQueue queue = new FrameCallbackQueue();
+        final Counter counter = new Counter();
+        assertTrue(queue.post(counter));
+        queue.remove(counter);
+        assertTrue(queue.post(counter));
+        assertFalse(queue.post(counter));
+
+        queue.dispatch(0);
+        assertEquals(1, counter.mCount);
+    }
+
+    private static class Counter implements FrameClock.Callback
+    {
+        int mCount;
+
+        @Override
+        public void doFrame (long frameTimeNanos)
+        {
+            mCount++;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package pauland.mypplication.lib;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The scheduler driven frame by frame by a {@link FakeFrameClock}, 16 ms apart: animations
+ * moved when another one ends or is cancelled are still found.
+ */
+public class GlyphAnimationSchedulerTest
+{
+    private static final float EPSILON  = 1e-6f;
+    private static final long  DURATION = 320;
+    private static final long  FRAME    = 16;
+
+    private FakeFrameClock          mClock;
+    private GlyphAnimationScheduler mScheduler;
+    private Glyph[]                 mGlyphs;
+
+    @Before
+    public void setUp ()
+    {
+        mClock = new FakeFrameClock();
+        mScheduler = new GlyphAnimationScheduler(mClock);
+        mScheduler.setEasing(GlyphProgressMapper.LINEAR);
+        // More glyphs than the initial capacity of the scheduler
+        mGlyphs = new Glyph[20];
+        for (int i = 0; i < mGlyphs.length; i++)
+        {
+            mGlyphs[i] = new Glyph();
+            mScheduler.animateTo(mGlyphs[i], 1, DURATION);
+        }
+    }
+
+    @Test
+    public void cancelledAnimationIsForgotten ()
+    {
+        mScheduler.cancel(mGlyphs[3]);
+
+        assertFalse(mScheduler.isAnimating(mGlyphs[3]));
+        assertEquals(mGlyphs.length - 1, mScheduler.getAnimationCount());
+        for (int i = 0; i < mGlyphs.length; i++)
+        {
+            assertEquals("glyph " + i, i != 3, mScheduler.isAnimating(mGlyphs[i]));
+        }
+    }
+
+    @Test
+    public void movedAnimationIsRetargeted ()
+    {
+        // The last animation takes the place of the cancelled one
+        final Glyph last = mGlyphs[mGlyphs.length - 1];
+        mScheduler.cancel(mGlyphs[0]);
+        mScheduler.animateTo(last, 0.5f, DURATION);
+        assertEquals(mGlyphs.length - 1, mScheduler.getAnimationCount());
+
+        mClock.advance(FRAME);
+        mClock.advance(DURATION);
+        assertEquals(0.5f, last.mPosition, EPSILON);
+        assertEquals(1, mGlyphs[1].mPosition, EPSILON);
+        assertEquals(0, mGlyphs[0].mPosition, EPSILON);
+    }
+
+    @Test
+    public void endedAnimationsAreForgotten ()
+    {
+        mClock.advance(FRAME);
+        mClock.advance(DURATION);
+
+        assertEquals(0, mScheduler.getAnimationCount());
+        assertEquals(0, mClock.getPendingCount());
+        for (Glyph glyph : mGlyphs)
+        {
+            assertFalse(mScheduler.isAnimating(glyph));
+        }
+
+        // A new animation reuses the slots
+        mScheduler.animateTo(mGlyphs[5], 0, DURATION);
+        assertTrue(mScheduler.isAnimating(mGlyphs[5]));
+        assertEquals(1, mScheduler.getAnimationCount());
+    }
+
+    /**
+     * A target only holding its position.
+     */
+    private static final class Glyph implements GlyphAnimator.Target
+    {
+        float mPosition;
+
+        @Override
+        public float getPosition ()
+        {
+            return mPosition;
+        }
+
+        @Override
+        public void setPosition (float position)
+        {
+            mPosition = position;
+        }
+    }
+}
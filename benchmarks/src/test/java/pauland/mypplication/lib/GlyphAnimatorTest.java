@@ -0,0 +1,109 @@
+package pauland.mypplication.lib;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The animator driven frame by frame by a {@link FakeFrameClock}, 16 ms apart.
+ */
+public class GlyphAnimatorTest
+{
+    private static final float EPSILON  = 1e-6f;
+    private static final long  DURATION = 320;
+    private static final long  FRAME    = 16;
+
+    private FakeFrameClock mClock;
+    private Glyph          mGlyph;
+    private GlyphAnimator  mAnimator;
+
+    @Before
+    public void setUp ()
+    {
+        mClock = new FakeFrameClock();
+        mGlyph = new Glyph();
+        mAnimator = new GlyphAnimator(mGlyph, mClock, DURATION);
+        mAnimator.setEasing(GlyphProgressMapper.LINEAR);
+    }
+
+    @Test
+    public void animateToReachesTheTargetAfterTheDuration ()
+    {
+        mAnimator.animateTo(1);
+        assertTrue(mAnimator.isRunning());
+        assertEquals(1, mClock.getPendingCount());
+        assertEquals(0, mGlyph.mPosition, EPSILON);
+
+        // The first frame starts the animation
+        mClock.advance(FRAME);
+        assertEquals(0, mGlyph.mPosition, EPSILON);
+        mClock.advance(DURATION / 2);
+        assertEquals(0.5f, mGlyph.mPosition, EPSILON);
+        mClock.advance(DURATION / 2);
+        assertEquals(1, mGlyph.mPosition, EPSILON);
+
+        assertFalse(mAnimator.isRunning());
+        assertEquals(0, mClock.getPendingCount());
+    }
+
+    @Test
+    public void shorterMovesAreFaster ()
+    {
+        mGlyph.mPosition = 0.75f;
+        mAnimator.animateTo(1);
+        mClock.advance(FRAME);
+        mClock.advance(DURATION / 4);
+        assertEquals(1, mGlyph.mPosition, EPSILON);
+        assertFalse(mAnimator.isRunning());
+    }
+
+    @Test
+    public void cancelKeepsThePositionAndRemovesTheCallback ()
+    {
+        mAnimator.animateTo(1);
+        mClock.advance(FRAME);
+        mClock.advance(DURATION / 4);
+        mAnimator.cancel();
+
+        assertFalse(mAnimator.isRunning());
+        assertEquals(0, mClock.getPendingCount());
+        mClock.advance(DURATION);
+        assertEquals(0.25f, mGlyph.mPosition, EPSILON);
+    }
+
+    @Test
+    public void settleFollowsTheVelocity ()
+    {
+        // Dragged open quickly, released before the middle
+        final long start = mClock.getFrameTimeNanos();
+        mAnimator.addSample(0.1f, start);
+        mAnimator.addSample(0.2f, start + FRAME * 1000000L);
+        mAnimator.addSample(0.3f, start + 2 * FRAME * 1000000L);
+        mAnimator.settle();
+
+        assertEquals(1, mAnimator.getTargetPosition(), EPSILON);
+    }
+
+    /**
+     * A target only holding its position.
+     */
+    private static final class Glyph implements GlyphAnimator.Target
+    {
+        float mPosition;
+
+        @Override
+        public float getPosition ()
+        {
+            return mPosition;
+        }
+
+        @Override
+        public void setPosition (float position)
+        {
+            mPosition = position;
+        }
+    }
+}
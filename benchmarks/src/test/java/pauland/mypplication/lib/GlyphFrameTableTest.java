@@ -0,0 +1,66 @@
+package pauland.mypplication.lib;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class GlyphFrameTableTest
+{
+    private final float[] mBars     = new float[GlyphGeometry.BUFFER_SIZE];
+    private final float[] mExpected = new float[GlyphGeometry.BUFFER_SIZE];
+    private GlyphGeometry   mGeometry;
+    private ColorRamp       mColors;
+    private GlyphFrameTable mTable;
+
+    @Before
+    public void setUp ()
+    {
+        mGeometry = new GlyphGeometry();
+        mGeometry.setPaddingLR(24);
+        mGeometry.setPaddingTB(30);
+        mGeometry.setBarHeight(6);
+        mGeometry.setBounds(0, 0, 108, 102);
+        mColors = new ColorRamp();
+        mColors.set(0xFF000000, 0xFFFFFFFF, ColorRamp.SPACE_SRGB);
+        // Only 2 frames: the closed and the opened glyph
+        mTable = new GlyphFrameTable(2);
+        mTable.rebuild(mGeometry, mColors);
+    }
+
+    @Test
+    public void snapsToNearestFrame ()
+    {
+        assertEquals(0xFF000000, mTable.lookup(0.4f, false, mBars));
+        mGeometry.compute(0, mExpected);
+        assertEquals(mExpected[GlyphGeometry.CENTER_Y], mBars[GlyphGeometry.CENTER_Y], 1e-4f);
+        assertEquals(0xFFFFFFFF, mTable.lookup(0.6f, false, mBars));
+    }
+
+    @Test
+    public void interpolatesGeometryAndColor ()
+    {
+        final int color = mTable.lookup(0.5f, true, mBars);
+        assertEquals(0xFF7F7F7F, color);
+        // The middle bar fades out linearly
+        assertEquals(0.5f, mBars[GlyphGeometry.STRIDE + GlyphGeometry.ALPHA], 1e-4f);
+    }
+
+    @Test
+    public void rebuildsWithAnotherBarCount ()
+    {
+        // The frames of 5 bars are kept for 3, then reused for 4
+        final int[] barCounts = {5, 3, 4};
+        for (int barCount : barCounts)
+        {
+            mGeometry.setBarCount(barCount);
+            mTable.rebuild(mGeometry, mColors);
+            mTable.lookup(1, false, mBars);
+            mGeometry.compute(1, mExpected);
+            for (int i = 0; i < barCount * GlyphGeometry.STRIDE; i++)
+            {
+                assertEquals(barCount + " bars, value " + i, mExpected[i], mBars[i], 1e-4f);
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package pauland.mypplication.lib;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * The bars of the built-in styles, compared with the rectangles, rotations and translations the
+ * canvas code drawing the glyph before {@link GlyphGeometry} used.
+ * <p/>
+ * The glyph is 108x102 with paddings 24 and 30 and bars of 6: the bars are 60 long, 12 apart,
+ * their tops are at 30, 48 and 66 and the center of the glyph is (54, 51).
+ */
+public class GlyphGeometryTest
+{
+    private static final float EPSILON     = 1e-3f;
+    private static final int   FRAME_COUNT = 100000;
+
+    private final float[] mBars = new float[GlyphGeometry.BUFFER_SIZE];
+    private GlyphGeometry mGeometry;
+
+    @Before
+    public void setUp ()
+    {
+        mGeometry = new GlyphGeometry();
+        mGeometry.setPaddingLR(24);
+        mGeometry.setPaddingTB(30);
+        mGeometry.setBarHeight(6);
+        mGeometry.setBounds(0, 0, 108, 102);
+    }
+
+    @Test
+    public void crossClosed ()
+    {
+        compute(GlyphGeometry.STYLE_CROSS, 0);
+        assertBar(0, 24, 30, 84, 36, 0, 54, 33, 1);
+        assertBar(1, 24, 48, 84, 54, 0, 54, 51, 1);
+        assertBar(2, 24, 66, 84, 72, 0, 54, 69, 1);
+    }
+
+    @Test
+    public void crossHalfway ()
+    {
+        compute(GlyphGeometry.STYLE_CROSS, 0.5f);
+        // The outer bars move by half the distance to the center while rotating around it
+        assertBar(0, 24, 39, 84, 45, 22.5f, 54, 42, 1);
+        assertBar(1, 24, 48, 84, 54, 0, 54, 51, 0.5f);
+        assertBar(2, 24, 57, 84, 63, -22.5f, 54, 60, 1);
+    }
+
+    @Test
+    public void crossOpened ()
+    {
+        compute(GlyphGeometry.STYLE_CROSS, 1);
+        assertBar(0, 24, 48, 84, 54, 45, 54, 51, 1);
+        assertBar(1, 24, 48, 84, 54, 0, 54, 51, 0);
+        assertBar(2, 24, 48, 84, 54, -45, 54, 51, 1);
+    }
+
+    @Test
+    public void arrowClosed ()
+    {
+        compute(GlyphGeometry.STYLE_ARROW, 0);
+        assertBar(0, 24, 30, 84, 36, 0, 24, 30, 1);
+        assertBar(1, 24, 48, 84, 54, 0, 54, 51, 1);
+        assertBar(2, 24, 66, 84, 72, 0, 24, 72, 1);
+    }
+
+    @Test
+    public void arrowHalfway ()
+    {
+        compute(GlyphGeometry.STYLE_ARROW, 0.5f);
+        // The outer bars lose half of their shortening and pivot around their outer left corner
+        assertBar(0, 24, 39, 69, 45, -17.5f, 24, 39, 1);
+        assertBar(1, 24, 48, 84, 54, 0, 54, 51, 1);
+        assertBar(2, 24, 57, 69, 63, 17.5f, 24, 63, 1);
+    }
+
+    @Test
+    public void arrowOpened ()
+    {
+        compute(GlyphGeometry.STYLE_ARROW, 1);
+        assertBar(0, 24, 48, 54, 54, -35, 24, 48, 1);
+        assertBar(1, 24, 48, 84, 54, 0, 54, 51, 1);
+        assertBar(2, 24, 48, 54, 54, 35, 24, 54, 1);
+    }
+
+    @Test
+    public void caretClosed ()
+    {
+        compute(GlyphGeometry.STYLE_CARET, 0);
+        assertBar(0, 24, 30, 84, 36, 0, 24, 30, 1);
+        assertBar(1, 24, 48, 84, 54, 0, 24, 51, 1);
+        assertBar(2, 24, 66, 84, 72, 0, 24, 72, 1);
+    }
+
+    @Test
+    public void caretHalfway ()
+    {
+        compute(GlyphGeometry.STYLE_CARET, 0.5f);
+        assertBar(0, 24, 39, 69, 45, -20, 24, 39, 1);
+        assertBar(1, 24, 48, 69, 54, 0, 24, 51, 0.5f);
+        // The last bar also rises by half a bar, so both meet at the tip of the caret
+        assertBar(2, 24, 55.5f, 69, 61.5f, 20, 24, 61.5f, 1);
+    }
+
+    @Test
+    public void caretOpened ()
+    {
+        compute(GlyphGeometry.STYLE_CARET, 1);
+        assertBar(0, 24, 48, 54, 54, -40, 24, 48, 1);
+        assertBar(1, 24, 48, 54, 54, 0, 24, 51, 0);
+        assertBar(2, 24, 45, 54, 51, 40, 24, 51, 1);
+    }
+
+    @Test
+    public void morphEnds ()
+    {
+        mGeometry.setStyle(GlyphGeometry.STYLE_CROSS);
+        mGeometry.morphToStyle(GlyphGeometry.STYLE_ARROW);
+        mGeometry.setMorphFraction(1);
+        mGeometry.compute(1, mBars);
+        assertBar(0, 24, 48, 54, 54, -35, 24, 48, 1);
+    }
+
+    @Test
+    public void morphFramesDoNotAllocate ()
+    {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        final long threadId = Thread.currentThread().getId();
+
+        mGeometry.setStyle(GlyphGeometry.STYLE_CROSS);
+        mGeometry.morphToStyle(GlyphGeometry.STYLE_ARROW);
+        // The first frames compute the keyframes of both styles and get the loop compiled
+        morphFrames(FRAME_COUNT);
+        threads.getThreadAllocatedBytes(threadId);
+
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        morphFrames(FRAME_COUNT);
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Compiling the loop may still allocate a few bytes once, a single array per frame would
+        // take at least 16 bytes per frame
+        assertTrue("bytes allocated by " + FRAME_COUNT + " morph frames: " + allocated, allocated < FRAME_COUNT);
+    }
+
+    private void morphFrames (int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            final float fraction = (float) (i % 100) / 100;
+            mGeometry.setMorphFraction(fraction);
+            mGeometry.compute(1 - fraction, mBars);
+        }
+    }
+
+    private void compute (int style, float position)
+    {
+        mGeometry.setStyle(style);
+        mGeometry.compute(position, mBars);
+    }
+
+    /**
+     * Check a bar against the rectangle drawn by the canvas code, rotated around a pivot.
+     *
+     * @param bar     index of the bar
+     * @param degrees rotation of the canvas
+     * @param pivotX  pivot of the rotation
+     * @param pivotY  pivot of the rotation
+     * @param alpha   opacity, from 0 to 1
+     */
+    private void assertBar (int bar, float left, float top, float right, float bottom, float degrees, float pivotX, float pivotY, float alpha)
+    {
+        final int offset = bar * GlyphGeometry.STRIDE;
+        final double radians = Math.toRadians(degrees);
+        final float cos = (float) Math.cos(radians);
+        final float sin = (float) Math.sin(radians);
+        final float y = (top + bottom) / 2;
+
+        final String name = "bar " + bar;
+        assertEquals(name + " x0", pivotX + (left - pivotX) * cos - (y - pivotY) * sin, mBars[offset + GlyphGeometry.X0], EPSILON);
+        assertEquals(name + " y0", pivotY + (left - pivotX) * sin + (y - pivotY) * cos, mBars[offset + GlyphGeometry.Y0], EPSILON);
+        assertEquals(name + " x1", pivotX + (right - pivotX) * cos - (y - pivotY) * sin, mBars[offset + GlyphGeometry.X1], EPSILON);
+        assertEquals(name + " y1", pivotY + (right - pivotX) * sin + (y - pivotY) * cos, mBars[offset + GlyphGeometry.Y1], EPSILON);
+        assertEquals(name + " half length", (right - left) / 2, mBars[offset + GlyphGeometry.HALF_LENGTH], EPSILON);
+        assertEquals(name + " angle", degrees, mBars[offset + GlyphGeometry.ANGLE], EPSILON);
+        assertEquals(name + " alpha", alpha, mBars[offset + GlyphGeometry.ALPHA], EPSILON);
+    }
+}
@@ -0,0 +1,67 @@
+package pauland.mypplication.lib;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class GlyphProgressMapperTest
+{
+    private static final float EPSILON = 1e-6f;
+
+    /**
+     * The mapping <code>onDrawerSlide</code> did inline before the mappers.
+     */
+    private static float legacyInline (float glyphOffset, float slideOffset)
+    {
+        if (slideOffset > 0.5f)
+            return Math.max(glyphOffset, Math.max(0.f, slideOffset - 0.5f) * 2);
+        return Math.min(glyphOffset, slideOffset * 2);
+    }
+
+    @Test
+    public void legacyMatchesInlineWhileOpeningAndClosing ()
+    {
+        float position = 0, expected = 0;
+        // Opened then closed in small steps, not aligned on the table of the mapper
+        for (int i = 0; i <= 2000; i++)
+        {
+            final float slideOffset = (i <= 1000 ? i : 2000 - i) / 1000f;
+            position = GlyphProgressMapper.LEGACY.map(position, slideOffset);
+            expected = legacyInline(expected, slideOffset);
+            assertEquals("slide offset " + slideOffset, expected, position, EPSILON);
+        }
+    }
+
+    @Test
+    public void legacyMatchesInlineWhenReversed ()
+    {
+        // The hysteresis keeps the glyph still when the drawer changes direction
+        final float[] offsets = {0, 0.3f, 0.7f, 0.6f, 0.4f, 0.55f, 0.8f, 1, 0.9f, 0.45f, 0.2f, 0.6f, 0};
+        float position = 0, expected = 0;
+        for (float slideOffset : offsets)
+        {
+            position = GlyphProgressMapper.LEGACY.map(position, slideOffset);
+            expected = legacyInline(expected, slideOffset);
+            assertEquals("slide offset " + slideOffset, expected, position, EPSILON);
+        }
+    }
+
+    @Test
+    public void legacyFromOpened ()
+    {
+        // A drawer restored open starts from the opened glyph
+        assertEquals(1, GlyphProgressMapper.LEGACY.map(1, 0.9f), EPSILON);
+        assertEquals(legacyInline(1, 0.4f), GlyphProgressMapper.LEGACY.map(1, 0.4f), EPSILON);
+    }
+
+    @Test
+    public void linearAndEaseInOutEnds ()
+    {
+        assertEquals(0, GlyphProgressMapper.LINEAR.getValue(0), EPSILON);
+        assertEquals(0.25f, GlyphProgressMapper.LINEAR.getValue(0.25f), EPSILON);
+        assertEquals(1, GlyphProgressMapper.LINEAR.getValue(1), EPSILON);
+        assertEquals(0, GlyphProgressMapper.EASE_IN_OUT.getValue(0), EPSILON);
+        assertEquals(0.5f, GlyphProgressMapper.EASE_IN_OUT.getValue(0.5f), 1e-3f);
+        assertEquals(1, GlyphProgressMapper.EASE_IN_OUT.getValue(1), EPSILON);
+    }
+}
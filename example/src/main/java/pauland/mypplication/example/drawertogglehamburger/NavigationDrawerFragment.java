@@ -33,6 +33,8 @@ import pauland.mypplication.lib.DrawerToggleHamburger;
 public class NavigationDrawerFragment extends Fragment
 {
 
+    private static final long STYLE_MORPH_DURATION = 300;
+
     private DrawerToggleHamburger mDrawerToggle;
     private DrawerLayout          mDrawerLayout;
 
@@ -63,13 +65,15 @@ public class NavigationDrawerFragment extends Fragment
             width, height, R.string.navigation_drawer_open,  /* "open drawer" description for accessibility */
             R.string.navigation_drawer_close  /* "close drawer" description for accessibility */);
 
-        mDrawerToggle.setClosedColor(Color.WHITE)
-                     .setOpenedColor(Color.RED)
-                     .setStyleShape(DrawerToggleHamburger.STYLE_CROSS)
-                     .setPaddingLR(paddingLR)
-                     .setPaddingTB(paddingTB)
-                     .setRounded(true)
-                     .setBarHeight(barHeight);
+        mDrawerToggle.setConfig(new DrawerToggleHamburger.Config.Builder(r, width, height)
+                                    .setClosedColor(Color.WHITE)
+                                    .setOpenedColor(Color.RED)
+                                    .setStyleShape(DrawerToggleHamburger.STYLE_CROSS)
+                                    .setPaddingLR(paddingLR)
+                                    .setPaddingTB(paddingTB)
+                                    .setRounded(true)
+                                    .setBarHeight(barHeight)
+                                    .build());
 
         mDrawerLayout.post(new Runnable()
         {
@@ -107,14 +111,14 @@ public class NavigationDrawerFragment extends Fragment
                 switch (checkedId)
                 {
                     case R.id.style_arrow:
-                        mDrawerToggle.setStyleShape(DrawerToggleHamburger.STYLE_ARROW);
+                        mDrawerToggle.morphToStyle(DrawerToggleHamburger.STYLE_ARROW, STYLE_MORPH_DURATION);
                         break;
                     case R.id.style_caret:
-                        mDrawerToggle.setStyleShape(DrawerToggleHamburger.STYLE_CARET);
+                        mDrawerToggle.morphToStyle(DrawerToggleHamburger.STYLE_CARET, STYLE_MORPH_DURATION);
                         break;
 
                     case R.id.style_cross:
-                        mDrawerToggle.setStyleShape(DrawerToggleHamburger.STYLE_CROSS);
+                        mDrawerToggle.morphToStyle(DrawerToggleHamburger.STYLE_CROSS, STYLE_MORPH_DURATION);
                         break;
 
                 }
@@ -0,0 +1,83 @@
+package pauland.mypplication.lib;
+
+import android.support.v4.view.GravityCompat;
+import android.support.v4.widget.DrawerLayout;
+import android.test.InstrumentationTestCase;
+
+/**
+ * A driver with an animation duration still maps the drag through its progress mapper, or takes
+ * the progress mapped by a {@link DrawerListenerMultiplexer}. The frames are run by the test.
+ */
+public class GlyphDriverTest extends InstrumentationTestCase
+{
+    private static final float EPSILON = 1e-3f;
+
+    // Far from the legacy mapping: half open is a quarter of the glyph
+    private static final GlyphProgressMapper SQUARE = GlyphProgressMapper.create(new GlyphProgressMapper.Curve()
+    {
+        @Override
+        public float getValue (float x)
+        {
+            return x * x;
+        }
+    });
+
+    private DrawerToggleHamburger.TransformDrawable mGlyph;
+    private ManualFrameClock                        mClock;
+    private GlyphDriver                             mDriver;
+
+    @Override
+    protected void setUp () throws Exception
+    {
+        super.setUp();
+        mGlyph = new DrawerToggleHamburger.TransformDrawable(getInstrumentation().getContext().getResources(), 108, 102);
+        mClock = new ManualFrameClock();
+        mGlyph.setFrameClock(mClock);
+        mDriver = new GlyphDriver(mGlyph, GravityCompat.START);
+        mDriver.setProgressMapper(SQUARE);
+        mDriver.setAnimationDuration(300);
+    }
+
+    public void testDragIsMapped ()
+    {
+        mDriver.onStateChanged(DrawerLayout.STATE_DRAGGING);
+        mDriver.onSlide(0.5f);
+        mClock.runFrame();
+
+        assertEquals(0.25f, mGlyph.getPosition(), EPSILON);
+    }
+
+    public void testDragFollowsTheMultiplexerProgress ()
+    {
+        mDriver.onStateChanged(DrawerLayout.STATE_DRAGGING);
+        mDriver.onSlide(0.5f, 0.8f);
+        mClock.runFrame();
+
+        assertEquals(0.8f, mGlyph.getPosition(), EPSILON);
+    }
+
+    /**
+     * Runs a frame when asked, at the current time: the drag samples are not extrapolated.
+     */
+    private static final class ManualFrameClock implements FrameClock
+    {
+        private final FrameCallbackQueue mQueue = new FrameCallbackQueue();
+
+        @Override
+        public void postFrameCallback (Callback callback)
+        {
+            mQueue.post(callback);
+        }
+
+        @Override
+        public void removeFrameCallback (Callback callback)
+        {
+            mQueue.remove(callback);
+        }
+
+        void runFrame ()
+        {
+            mQueue.dispatch(System.nanoTime());
+        }
+    }
+}
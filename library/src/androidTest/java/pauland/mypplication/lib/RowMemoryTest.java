@@ -0,0 +1,95 @@
+package pauland.mypplication.lib;
+
+import android.content.res.Resources;
+import android.test.InstrumentationTestCase;
+import android.test.UiThreadTest;
+import android.util.Log;
+
+/**
+ * Heap cost of a list row glyph, measured on the device over real drawables: the rows obtained
+ * from the {@link GlyphStateCache} only cost their position, unlike glyphs each configured on
+ * their own.
+ */
+public class RowMemoryTest extends InstrumentationTestCase
+{
+    private static final String TAG                  = "RowMemoryTest";
+    private static final int    ROW_COUNT            = 2000;
+    // A row sharing its state holds a few fields and the bounds of a Drawable
+    private static final long   MAX_SHARED_ROW_BYTES = 512;
+
+    private DrawerToggleHamburger.Config mConfig;
+
+    @Override
+    protected void setUp () throws Exception
+    {
+        super.setUp();
+        GlyphStateCache.clear();
+        mConfig = new DrawerToggleHamburger.Config.Builder(getInstrumentation().getContext().getResources(), 108, 102)
+                .setPaddingLR(24)
+                .setPaddingTB(30)
+                .setBarHeight(6)
+                .build();
+    }
+
+    @Override
+    protected void tearDown () throws Exception
+    {
+        GlyphStateCache.clear();
+        super.tearDown();
+    }
+
+    @UiThreadTest
+    public void testObtainedRowsOnlyCostTheirPosition ()
+    {
+        final long sharedRowBytes = measureRowBytes(true);
+        final long ownRowBytes = measureRowBytes(false);
+        Log.i(TAG, "Bytes per row: " + sharedRowBytes + " obtained, " + ownRowBytes + " configured on its own");
+
+        assertTrue("bytes per obtained row: " + sharedRowBytes, sharedRowBytes < MAX_SHARED_ROW_BYTES);
+        assertTrue("bytes per obtained row: " + sharedRowBytes + ", per row on its own: " + ownRowBytes, sharedRowBytes * 4 < ownRowBytes);
+    }
+
+    /**
+     * @param obtain true to obtain the rows from the cache, false to configure each on its own
+     * @return heap bytes retained by each row
+     */
+    private long measureRowBytes (boolean obtain)
+    {
+        final Resources resources = getInstrumentation().getContext().getResources();
+        final DrawerToggleHamburger.TransformDrawable[] rows = new DrawerToggleHamburger.TransformDrawable[ROW_COUNT];
+        // Loads the classes and caches the state before measuring
+        createRow(resources, obtain);
+
+        final long before = getUsedMemory();
+        for (int i = 0; i < ROW_COUNT; i++)
+        {
+            rows[i] = createRow(resources, obtain);
+        }
+        final long after = getUsedMemory();
+
+        // Keeps the rows reachable until measured
+        assertNotNull(rows[ROW_COUNT - 1]);
+        return (after - before) / ROW_COUNT;
+    }
+
+    private DrawerToggleHamburger.TransformDrawable createRow (Resources resources, boolean obtain)
+    {
+        if (obtain)
+            return DrawerToggleHamburger.TransformDrawable.obtain(resources, mConfig);
+
+        final DrawerToggleHamburger.TransformDrawable row = new DrawerToggleHamburger.TransformDrawable(resources, mConfig.getWidth(), mConfig.getHeight());
+        row.setConfig(mConfig);
+        return row;
+    }
+
+    private static long getUsedMemory ()
+    {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+        {
+            runtime.gc();
+            runtime.runFinalization();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
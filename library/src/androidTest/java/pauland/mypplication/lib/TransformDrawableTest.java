@@ -0,0 +1,105 @@
+package pauland.mypplication.lib;
+
+import android.graphics.Color;
+import android.test.InstrumentationTestCase;
+import android.test.UiThreadTest;
+
+/**
+ * The drawables obtained from the {@link GlyphStateCache} share their state until one of them
+ * changes its configuration. Runs on the main thread, except what must work from any thread.
+ */
+public class TransformDrawableTest extends InstrumentationTestCase
+{
+    private DrawerToggleHamburger.Config mConfig;
+
+    @Override
+    protected void setUp () throws Exception
+    {
+        super.setUp();
+        GlyphStateCache.clear();
+        // Paddings in pixels, so the bars fit whatever the density
+        mConfig = new DrawerToggleHamburger.Config.Builder(getInstrumentation().getContext().getResources(), 108, 102)
+                .setPaddingLR(24)
+                .setPaddingTB(30)
+                .setBarHeight(6)
+                .build();
+    }
+
+    @Override
+    protected void tearDown () throws Exception
+    {
+        GlyphStateCache.setMaxSize(GlyphStateCache.DEFAULT_MAX_SIZE);
+        GlyphStateCache.clear();
+        super.tearDown();
+    }
+
+    private DrawerToggleHamburger.TransformDrawable obtain ()
+    {
+        return DrawerToggleHamburger.TransformDrawable.obtain(getInstrumentation().getContext().getResources(), mConfig);
+    }
+
+    @UiThreadTest
+    public void testObtainedDrawablesShareTheirState ()
+    {
+        final DrawerToggleHamburger.TransformDrawable first = obtain();
+        final DrawerToggleHamburger.TransformDrawable second = obtain();
+
+        assertSame(first.getConstantState(), second.getConstantState());
+        assertEquals(mConfig, first.getConfig());
+    }
+
+    @UiThreadTest
+    public void testChangingOneLeavesTheOthersAndTheCache ()
+    {
+        final DrawerToggleHamburger.TransformDrawable changed = obtain();
+        final DrawerToggleHamburger.TransformDrawable other = obtain();
+
+        changed.setOpenedColor(Color.RED);
+        changed.setStyleShape(DrawerToggleHamburger.STYLE_ARROW);
+        changed.setAlpha(128);
+
+        assertNotSame(changed.getConstantState(), other.getConstantState());
+        assertEquals(Color.RED, changed.getConfig().getOpenedColor());
+        assertEquals(DrawerToggleHamburger.STYLE_ARROW, changed.getConfig().getStyle());
+        assertEquals(mConfig, other.getConfig());
+        assertEquals(255, other.getAlpha());
+
+        // The cached state was not changed either
+        final DrawerToggleHamburger.TransformDrawable obtained = obtain();
+        assertSame(other.getConstantState(), obtained.getConstantState());
+        assertEquals(mConfig, obtained.getConfig());
+    }
+
+    @UiThreadTest
+    public void testPositionIsNotShared ()
+    {
+        final DrawerToggleHamburger.TransformDrawable moved = obtain();
+        final DrawerToggleHamburger.TransformDrawable other = obtain();
+
+        moved.setPositionNow(1);
+
+        assertSame(moved.getConstantState(), other.getConstantState());
+        assertEquals(0, other.getPosition(), 0);
+    }
+
+    public void testObtainOffTheMainThread ()
+    {
+        // The instrumentation thread has no looper, the frame clock must not be resolved here
+        final DrawerToggleHamburger.TransformDrawable drawable = obtain();
+
+        assertEquals(mConfig, drawable.getConfig());
+        assertSame(drawable.getConstantState(), obtain().getConstantState());
+    }
+
+    @UiThreadTest
+    public void testResizingTheCacheKeepsItsStates ()
+    {
+        final DrawerToggleHamburger.TransformDrawable first = obtain();
+        final int hitCount = GlyphStateCache.getHitCount();
+
+        GlyphStateCache.setMaxSize(GlyphStateCache.DEFAULT_MAX_SIZE / 2);
+
+        assertSame(first.getConstantState(), obtain().getConstantState());
+        assertEquals(hitCount + 1, GlyphStateCache.getHitCount());
+    }
+}
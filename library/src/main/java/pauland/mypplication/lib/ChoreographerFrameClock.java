@@ -0,0 +1,131 @@
+package pauland.mypplication.lib;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+/**
+ * {@link FrameClock} of the main thread, backed by {@link Choreographer} on Jelly Bean and later and
+ * by a {@link Handler} on older versions.
+ * <p/>
+ * Every callback posted for the same frame is run from a single platform callback, see
+ * {@link FrameCallbackQueue}. Must only be used from the main thread; the instance can be obtained
+ * from any thread, the platform clock is only resolved when a callback is first posted.
+ */
+public final class ChoreographerFrameClock implements FrameClock
+{
+    // Delay between two frames when Choreographer is not available
+    private static final long FRAME_DELAY = 10;
+
+    private static ChoreographerFrameClock sInstance;
+
+    private final FrameCallbackQueue mQueue = new FrameCallbackQueue();
+    private final FrameSource        mSource;
+    private boolean                  mScheduled;
+
+    private ChoreographerFrameClock ()
+    {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN)
+        {
+            mSource = new ChoreographerSource(this);
+        }
+        else
+        {
+            mSource = new HandlerSource(this);
+        }
+    }
+
+    /**
+     * @return the frame clock of the main thread
+     */
+    public static ChoreographerFrameClock getInstance ()
+    {
+        if (sInstance == null)
+        {
+            sInstance = new ChoreographerFrameClock();
+        }
+        return sInstance;
+    }
+
+    @Override
+    public void postFrameCallback (Callback callback)
+    {
+        if (mQueue.post(callback) && !mScheduled)
+        {
+            mScheduled = true;
+            mSource.schedule();
+        }
+    }
+
+    @Override
+    public void removeFrameCallback (Callback callback)
+    {
+        mQueue.remove(callback);
+    }
+
+    private void dispatchFrame (long frameTimeNanos)
+    {
+        mScheduled = false;
+        mQueue.dispatch(frameTimeNanos);
+    }
+
+    private interface FrameSource
+    {
+        void schedule ();
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static class ChoreographerSource implements FrameSource, Choreographer.FrameCallback
+    {
+        private final ChoreographerFrameClock mClock;
+        // Choreographer of the thread scheduling the first frame, the main thread
+        private Choreographer                 mChoreographer;
+
+        ChoreographerSource (ChoreographerFrameClock clock)
+        {
+            mClock = clock;
+        }
+
+        @Override
+        public void schedule ()
+        {
+            if (mChoreographer == null)
+            {
+                mChoreographer = Choreographer.getInstance();
+            }
+            mChoreographer.postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame (long frameTimeNanos)
+        {
+            mClock.dispatchFrame(frameTimeNanos);
+        }
+    }
+
+    private static class HandlerSource implements FrameSource, Runnable
+    {
+        private final ChoreographerFrameClock mClock;
+        private final Handler                 mHandler;
+
+        HandlerSource (ChoreographerFrameClock clock)
+        {
+            mClock = clock;
+            mHandler = new Handler(Looper.getMainLooper());
+        }
+
+        @Override
+        public void schedule ()
+        {
+            mHandler.postDelayed(this, FRAME_DELAY);
+        }
+
+        @Override
+        public void run ()
+        {
+            mClock.dispatchFrame(System.nanoTime());
+        }
+    }
+}
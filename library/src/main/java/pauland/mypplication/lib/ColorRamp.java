@@ -0,0 +1,263 @@
+package pauland.mypplication.lib;
+
+/**
+ * Precomputed transition between two ARGB colors (no <code>android.*</code> dependency).
+ * <p/>
+ * The ramp is only rebuilt when one of the colors or the color space changes, getting the color
+ * of a position is then a single array read.
+ */
+public final class ColorRamp
+{
+    /**
+     * Interpolate the sRGB encoded channels (Default)
+     */
+    public static final int SPACE_SRGB = 0;
+
+    /**
+     * Interpolate linear light channels, the midpoint of two saturated colors stays bright
+     */
+    public static final int SPACE_LINEAR_RGB = 1;
+
+    /**
+     * Interpolate hue, saturation and value, the hue takes the shortest way around the wheel
+     */
+    public static final int SPACE_HSV = 2;
+
+    public static final int DEFAULT_SIZE = 256;
+
+    // sRGB encoded channel -> linear light
+    private static final float[] TO_LINEAR = new float[256];
+
+    static
+    {
+        for (int i = 0; i < 256; i++)
+        {
+            final double c = i / 255d;
+            TO_LINEAR[i] = (float) (c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4));
+        }
+    }
+
+    private final int[] mColors;
+    private int     mFrom, mTo, mColorSpace;
+    private int     mMaxDelta;
+    private boolean mBuilt;
+
+    public ColorRamp ()
+    {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * @param size number of precomputed colors (at least 2)
+     */
+    public ColorRamp (int size)
+    {
+        if (size < 2)
+            throw new IllegalArgumentException("A color ramp needs at least 2 colors, got " + size);
+
+        mColors = new int[size];
+    }
+
+    /**
+     * Set the colors of the ramp, it is only rebuilt if something changed.
+     *
+     * @param from       color at position 0
+     * @param to         color at position 1
+     * @param colorSpace one of {@link #SPACE_SRGB}, {@link #SPACE_LINEAR_RGB} or {@link #SPACE_HSV}
+     */
+    public void set (int from, int to, int colorSpace)
+    {
+        if (mBuilt && from == mFrom && to == mTo && colorSpace == mColorSpace)
+            return;
+
+        mFrom = from;
+        mTo = to;
+        mColorSpace = colorSpace;
+
+        final int last = mColors.length - 1;
+        int maxDelta = 0;
+        for (int i = 0; i <= last; i++)
+        {
+            mColors[i] = interpolate((float) i / last, from, to, colorSpace);
+            if (i > 0)
+            {
+                maxDelta = Math.max(maxDelta, channelDelta(mColors[i - 1], mColors[i]));
+            }
+        }
+        mMaxDelta = maxDelta * last;
+        mBuilt = true;
+    }
+
+    /**
+     * @param position a value between 0 and 1
+     * @return the color of the nearest precomputed position
+     */
+    public int get (float position)
+    {
+        final int last = mColors.length - 1;
+        if (position <= 0)
+            return mColors[0];
+        if (position >= 1)
+            return mColors[last];
+
+        return mColors[(int) (position * last + 0.5f)];
+    }
+
+    /**
+     * @return an upper bound of how many levels a color channel changes when the position
+     * changes by 1
+     */
+    public int getMaxDelta ()
+    {
+        return mMaxDelta;
+    }
+
+    /**
+     * Blend two ARGB colors.
+     *
+     * @param value      a value between 0 (<code>from</code>) and 1 (<code>to</code>)
+     * @param from       color at 0
+     * @param to         color at 1
+     * @param colorSpace one of {@link #SPACE_SRGB}, {@link #SPACE_LINEAR_RGB} or {@link #SPACE_HSV}
+     */
+    public static int interpolate (float value, int from, int to, int colorSpace)
+    {
+        final int alpha = (int) lerp(value, from >>> 24, to >>> 24);
+        switch (colorSpace)
+        {
+            case SPACE_LINEAR_RGB:
+                return (alpha << 24) | (lerpLinear(value, (from >> 16) & 0xFF, (to >> 16) & 0xFF) << 16) | (lerpLinear(value, (from >> 8) & 0xFF, (to >> 8) & 0xFF) << 8) | lerpLinear(value, from & 0xFF, to & 0xFF);
+
+            case SPACE_HSV:
+                return (alpha << 24) | lerpHsv(value, from, to);
+
+            case SPACE_SRGB:
+            default:
+                final int red = (int) lerp(value, (from >> 16) & 0xFF, (to >> 16) & 0xFF);
+                final int green = (int) lerp(value, (from >> 8) & 0xFF, (to >> 8) & 0xFF);
+                final int blue = (int) lerp(value, from & 0xFF, to & 0xFF);
+                return (alpha << 24) | (red << 16) | (green << 8) | blue;
+        }
+    }
+
+    private static float lerp (float value, float from, float to)
+    {
+        return from + (to - from) * value;
+    }
+
+    private static int lerpLinear (float value, int from, int to)
+    {
+        final double linear = lerp(value, TO_LINEAR[from], TO_LINEAR[to]);
+        final double encoded = linear <= 0.0031308 ? linear * 12.92 : 1.055 * Math.pow(linear, 1 / 2.4) - 0.055;
+        return Math.max(0, Math.min(255, (int) (encoded * 255 + 0.5)));
+    }
+
+    private static int lerpHsv (float value, int from, int to)
+    {
+        final float[] hsvFrom = toHsv(from);
+        final float[] hsvTo = toHsv(to);
+
+        // A grey has no hue, keep the hue of the other color
+        if (hsvFrom[1] == 0)
+            hsvFrom[0] = hsvTo[0];
+        if (hsvTo[1] == 0)
+            hsvTo[0] = hsvFrom[0];
+
+        float hueDelta = hsvTo[0] - hsvFrom[0];
+        if (hueDelta > 180)
+            hueDelta -= 360;
+        else if (hueDelta < -180)
+            hueDelta += 360;
+
+        float hue = hsvFrom[0] + hueDelta * value;
+        if (hue < 0)
+            hue += 360;
+        else if (hue >= 360)
+            hue -= 360;
+
+        return fromHsv(hue, lerp(value, hsvFrom[1], hsvTo[1]), lerp(value, hsvFrom[2], hsvTo[2]));
+    }
+
+    private static float[] toHsv (int color)
+    {
+        final int red = (color >> 16) & 0xFF;
+        final int green = (color >> 8) & 0xFF;
+        final int blue = color & 0xFF;
+        final int max = Math.max(red, Math.max(green, blue));
+        final int min = Math.min(red, Math.min(green, blue));
+        final float delta = max - min;
+
+        float hue = 0;
+        if (delta > 0)
+        {
+            if (max == red)
+                hue = 60 * ((green - blue) / delta);
+            else if (max == green)
+                hue = 60 * ((blue - red) / delta + 2);
+            else
+                hue = 60 * ((red - green) / delta + 4);
+
+            if (hue < 0)
+                hue += 360;
+        }
+        return new float[]{hue, max == 0 ? 0 : delta / max, max / 255f};
+    }
+
+    private static int fromHsv (float hue, float saturation, float value)
+    {
+        final float chroma = value * saturation;
+        final float sector = hue / 60;
+        final float x = chroma * (1 - Math.abs(sector % 2 - 1));
+        final float m = value - chroma;
+
+        float red, green, blue;
+        switch ((int) sector)
+        {
+            case 0:
+                red = chroma;
+                green = x;
+                blue = 0;
+                break;
+            case 1:
+                red = x;
+                green = chroma;
+                blue = 0;
+                break;
+            case 2:
+                red = 0;
+                green = chroma;
+                blue = x;
+                break;
+            case 3:
+                red = 0;
+                green = x;
+                blue = chroma;
+                break;
+            case 4:
+                red = x;
+                green = 0;
+                blue = chroma;
+                break;
+            default:
+                red = chroma;
+                green = 0;
+                blue = x;
+                break;
+        }
+        return (toChannel(red + m) << 16) | (toChannel(green + m) << 8) | toChannel(blue + m);
+    }
+
+    private static int toChannel (float value)
+    {
+        return Math.max(0, Math.min(255, (int) (value * 255 + 0.5f)));
+    }
+
+    private static int channelDelta (int a, int b)
+    {
+        final int alpha = Math.abs((a >>> 24) - (b >>> 24));
+        final int red = Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF));
+        final int green = Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF));
+        final int blue = Math.abs((a & 0xFF) - (b & 0xFF));
+        return Math.max(Math.max(alpha, red), Math.max(green, blue));
+    }
+}
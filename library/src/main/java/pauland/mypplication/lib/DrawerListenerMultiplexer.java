@@ -0,0 +1,211 @@
+package pauland.mypplication.lib;
+
+import android.support.v4.view.GravityCompat;
+import android.support.v4.view.ViewCompat;
+import android.support.v4.widget.DrawerLayout;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Single {@link DrawerLayout.DrawerListener} of a drawer, dispatching its events to any number of
+ * listeners.
+ * <p/>
+ * <p>The glyph progress of a slide event is mapped once (see
+ * {@link #setProgressMapper(GlyphProgressMapper)}) and handed to every {@link GlyphListener}, such
+ * as {@link DrawerToggleHamburger} and {@link HamburgerToggleView}, instead of each glyph mapping
+ * the slide offset again. Other listeners receive the events unchanged. Call
+ * {@link #syncState(DrawerLayout)} once the drawer layout is restored so the progress starts from
+ * the drawers actually open.</p>
+ * <p/>
+ * <p>The listeners are called in the order they were added, and kept in an array copied when they
+ * change: dispatching an event allocates nothing, and listeners can be added or removed from a
+ * callback, taking effect from the next event.</p>
+ */
+public class DrawerListenerMultiplexer implements DrawerLayout.DrawerListener
+{
+    /**
+     * Listener receiving the mapped glyph progress instead of the slide events.
+     */
+    public interface GlyphListener extends DrawerLayout.DrawerListener
+    {
+        /**
+         * Called instead of {@link #onDrawerSlide(View, float)}.
+         *
+         * @param drawerView  The child view that was moved
+         * @param slideOffset The new offset of this drawer within its range, from 0-1
+         * @param progress    The new position of the glyph, from 0-1
+         */
+        void onGlyphProgress (View drawerView, float slideOffset, float progress);
+    }
+
+    private static final DrawerLayout.DrawerListener[] NO_LISTENERS = new DrawerLayout.DrawerListener[0];
+
+    private DrawerLayout.DrawerListener[] mListeners      = NO_LISTENERS;
+    // Number of GlyphListeners in mListeners, the progress is only mapped if there is one
+    private int                           mGlyphListenerCount;
+    private GlyphProgressMapper           mProgressMapper = GlyphProgressMapper.LEGACY;
+
+    // Slots of the glyph progress, a DrawerLayout has at most one drawer on each side
+    private static final int SLOT_LEFT  = 0;
+    private static final int SLOT_RIGHT = 1;
+
+    private final float[] mProgress = new float[2];
+
+    /**
+     * Set how the slide offset is mapped to the progress given to the {@link GlyphListener}s.
+     *
+     * @param progressMapper the mapping, {@link GlyphProgressMapper#LEGACY} by default
+     */
+    public void setProgressMapper (GlyphProgressMapper progressMapper)
+    {
+        if (progressMapper == null)
+            throw new IllegalArgumentException("progressMapper must not be null");
+
+        mProgressMapper = progressMapper;
+    }
+
+    /**
+     * Add a listener. A {@link GlyphListener} receives the mapped progress instead of the slide
+     * events. Adding a listener again does nothing.
+     *
+     * @param listener the listener
+     */
+    public void addListener (DrawerLayout.DrawerListener listener)
+    {
+        if (listener == null)
+            throw new IllegalArgumentException("listener must not be null");
+
+        final DrawerLayout.DrawerListener[] listeners = mListeners;
+        if (indexOf(listeners, listener) >= 0)
+            return;
+
+        final DrawerLayout.DrawerListener[] added = new DrawerLayout.DrawerListener[listeners.length + 1];
+        System.arraycopy(listeners, 0, added, 0, listeners.length);
+        added[listeners.length] = listener;
+        mListeners = added;
+        if (listener instanceof GlyphListener)
+        {
+            mGlyphListenerCount++;
+        }
+    }
+
+    /**
+     * @param listener a listener added by {@link #addListener(DrawerLayout.DrawerListener)}
+     */
+    public void removeListener (DrawerLayout.DrawerListener listener)
+    {
+        final DrawerLayout.DrawerListener[] listeners = mListeners;
+        final int index = indexOf(listeners, listener);
+        if (index < 0)
+            return;
+
+        final DrawerLayout.DrawerListener[] removed = listeners.length == 1 ? NO_LISTENERS : new DrawerLayout.DrawerListener[listeners.length - 1];
+        System.arraycopy(listeners, 0, removed, 0, index);
+        System.arraycopy(listeners, index + 1, removed, index, listeners.length - index - 1);
+        mListeners = removed;
+        if (listener instanceof GlyphListener)
+        {
+            mGlyphListenerCount--;
+        }
+    }
+
+    private static int indexOf (Object[] listeners, Object listener)
+    {
+        for (int i = 0; i < listeners.length; i++)
+        {
+            if (listeners[i] == listener)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Start the progress of each drawer from its current state instead of closed. Call it from
+     * your <code>Activity</code>'s {@link android.app.Activity#onPostCreate(android.os.Bundle) onPostCreate}
+     * method, after the DrawerLayout's instance state has been restored, and whenever the events
+     * of the drawers were not forwarded to this multiplexer.
+     *
+     * @param drawerLayout the drawer layout this multiplexer listens to
+     */
+    public void syncState (DrawerLayout drawerLayout)
+    {
+        mProgress[SLOT_LEFT] = drawerLayout.isDrawerOpen(Gravity.LEFT) ? 1 : 0;
+        mProgress[SLOT_RIGHT] = drawerLayout.isDrawerOpen(Gravity.RIGHT) ? 1 : 0;
+    }
+
+    /**
+     * @return the slot of the progress of the drawer, from the side it is on. No reference to the
+     * view is kept.
+     */
+    private static int getSlot (View drawerView)
+    {
+        final ViewGroup.LayoutParams params = drawerView.getLayoutParams();
+        if (!(params instanceof DrawerLayout.LayoutParams))
+            return SLOT_LEFT;
+
+        final int gravity = GravityCompat.getAbsoluteGravity(((DrawerLayout.LayoutParams) params).gravity, ViewCompat.getLayoutDirection(drawerView));
+        return (gravity & Gravity.HORIZONTAL_GRAVITY_MASK) == Gravity.RIGHT ? SLOT_RIGHT : SLOT_LEFT;
+    }
+
+    @Override
+    public void onDrawerSlide (View drawerView, float slideOffset)
+    {
+        float progress = 0;
+        if (mGlyphListenerCount > 0)
+        {
+            final int slot = getSlot(drawerView);
+            progress = mProgressMapper.map(mProgress[slot], slideOffset);
+            mProgress[slot] = progress;
+        }
+
+        // Local copy: the array may be replaced by a callback
+        final DrawerLayout.DrawerListener[] listeners = mListeners;
+        for (int i = 0; i < listeners.length; i++)
+        {
+            final DrawerLayout.DrawerListener listener = listeners[i];
+            if (listener instanceof GlyphListener)
+            {
+                ((GlyphListener) listener).onGlyphProgress(drawerView, slideOffset, progress);
+            }
+            else
+            {
+                listener.onDrawerSlide(drawerView, slideOffset);
+            }
+        }
+    }
+
+    @Override
+    public void onDrawerOpened (View drawerView)
+    {
+        mProgress[getSlot(drawerView)] = 1;
+
+        final DrawerLayout.DrawerListener[] listeners = mListeners;
+        for (int i = 0; i < listeners.length; i++)
+        {
+            listeners[i].onDrawerOpened(drawerView);
+        }
+    }
+
+    @Override
+    public void onDrawerClosed (View drawerView)
+    {
+        mProgress[getSlot(drawerView)] = 0;
+
+        final DrawerLayout.DrawerListener[] listeners = mListeners;
+        for (int i = 0; i < listeners.length; i++)
+        {
+            listeners[i].onDrawerClosed(drawerView);
+        }
+    }
+
+    @Override
+    public void onDrawerStateChanged (int newState)
+    {
+        final DrawerLayout.DrawerListener[] listeners = mListeners;
+        for (int i = 0; i < listeners.length; i++)
+        {
+            listeners[i].onDrawerStateChanged(newState);
+        }
+    }
+}
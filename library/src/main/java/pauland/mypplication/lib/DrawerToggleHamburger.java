@@ -22,27 +22,30 @@ import android.app.ActionBar;
 import android.app.Activity;
 import android.content.res.Configuration;
 import android.content.res.Resources;
-import android.content.res.TypedArray;
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.ColorFilter;
 import android.graphics.Paint;
+import android.graphics.PixelFormat;
 import android.graphics.Rect;
 import android.graphics.RectF;
-import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
-import android.graphics.drawable.InsetDrawable;
 import android.os.Build;
 import android.support.v4.view.GravityCompat;
+import android.support.v4.view.ViewCompat;
 import android.support.v4.widget.DrawerLayout;
 import android.util.Log;
 import android.util.TypedValue;
 import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.Window;
 import android.widget.ImageView;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Created by Pauland on 29/07/2014.
@@ -70,23 +73,62 @@ import java.lang.reflect.Method;
  * {@link DrawerLayout.DrawerListener}, or if you are already providing your own listener,
  * call through to each of the listener methods from your own.</p>
  */
-public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
+public class DrawerToggleHamburger implements DrawerListenerMultiplexer.GlyphListener
 {
 
     /**
      * When the Drawer opens, the icon will be cross-shaped (Default)
      */
-    public static final int STYLE_CROSS = 0;
+    public static final int STYLE_CROSS = GlyphGeometry.STYLE_CROSS;
 
     /**
      * When the Drawer opens, the icon will be arrow-shaped
      */
-    public static final int STYLE_ARROW = 1;
+    public static final int STYLE_ARROW = GlyphGeometry.STYLE_ARROW;
 
     /**
      * When the Drawer opens, the icon will be caret-shaped
      */
-    public static final int STYLE_CARET = 2;
+    public static final int STYLE_CARET = GlyphGeometry.STYLE_CARET;
+
+    /**
+     * The bars are dots which stretch into a cross when the Drawer opens, best with
+     * {@link #setRounded(boolean)}
+     */
+    public static final int STYLE_DOTS = GlyphGeometry.STYLE_DOTS;
+
+    /**
+     * The bars are drawn on the canvas for every frame (Default)
+     */
+    public static final int RENDER_MODE_CANVAS = 0;
+
+    /**
+     * The frames are rasterized once in a bitmap shared by the icons having the same
+     * configuration (see {@link GlyphAtlasCache}), drawing a frame only copies the closest one.
+     * The frames are reduced to fit in the cache, or drawn on the canvas if even 2 do not fit.
+     */
+    public static final int RENDER_MODE_ATLAS = 1;
+
+    /**
+     * The bars are computed as lines and drawn with a single <code>Canvas.drawLines</code> call,
+     * without rotating the canvas
+     */
+    public static final int RENDER_MODE_LINES = 2;
+
+    /**
+     * The colors are blended in sRGB, like most tools do (Default)
+     */
+    public static final int COLOR_SPACE_SRGB = ColorRamp.SPACE_SRGB;
+
+    /**
+     * The colors are blended in linear RGB, avoiding a dark midpoint between saturated colors
+     */
+    public static final int COLOR_SPACE_LINEAR_RGB = ColorRamp.SPACE_LINEAR_RGB;
+
+    /**
+     * The colors are blended in HSV, going around the color wheel
+     */
+    public static final int COLOR_SPACE_HSV = ColorRamp.SPACE_HSV;
 
     private static final ActionBarDrawerToggleImpl IMPL;
 
@@ -108,16 +150,55 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
     }
 
     // android.R.id.home as defined by public API in v11
-    private static final int ID_HOME = 0x0102002c;
+    private static final int ID_HOME        = 0x0102002c;
+    // Not a valid resource id, the content description is unknown
+    private static final int NO_DESCRIPTION = -1;
     private final Activity     mActivity;
     private final Delegate     mActivityImpl;
     private final DrawerLayout mDrawerLayout;
     private final int          mOpenDrawerContentDescRes;
     private final int          mCloseDrawerContentDescRes;
     private boolean mDrawerIndicatorEnabled = true;
-    private Drawable          mThemeImage;
-    private TransformDrawable mSlider;
-    private Object            mSetIndicatorInfo;
+    // Resolved on first use, see getThemeImage()
+    private Drawable                     mThemeImage;
+    private ThemeUpIndicatorCache.Key    mThemeImageKey;
+    // Created from the state or the size when first synced, shown or moved, see getSlider()
+    private TransformDrawable            mSlider;
+    private final Drawable.ConstantState mSliderState;
+    private final int                    mSliderWidth, mSliderHeight;
+    // Changes made before the icon is created, applied to it when it is
+    private Config.Builder               mPendingConfig;
+    private boolean                      mPendingMutate, mPendingFrameClockSet, mPendingThresholdSet;
+    private FrameClock                   mPendingFrameClock;
+    private float                        mPendingPixelThreshold;
+    private int                          mPendingColorThreshold;
+    private long                         mInitTimeNanos;
+    private Object                       mSetIndicatorInfo;
+    // What the action bar shows, to skip the updates changing nothing
+    private Drawable mAppliedIndicator;
+    private int      mAppliedDescRes = NO_DESCRIPTION;
+    private int      mPendingDescRes = NO_DESCRIPTION;
+
+    private QualityPolicy          mQualityPolicy;
+    private QualityPolicy.Listener mQualityListener;
+    // View rendered in a hardware layer while the drawer moves, null if none
+    private View                   mHardwareLayerView;
+
+    // Drawer followed by the icon
+    private int                 mGravity        = GravityCompat.START;
+    private GlyphProgressMapper mProgressMapper = GlyphProgressMapper.LEGACY;
+    private long                mAnimationDurationMs;
+    // Move the icon, and the icon of the other drawer once requested. Created with the icon
+    private GlyphDriver         mDriver, mOtherDriver;
+
+    private final FrameClock.Callback mDescriptionUpdate = new FrameClock.Callback()
+    {
+        @Override
+        public void doFrame (long frameTimeNanos)
+        {
+            applyPendingDescription();
+        }
+    };
 
     /**
      * Construct a new ActionBarDrawerToggle.
@@ -140,6 +221,37 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
      *                                  for accessibility
      */
     public DrawerToggleHamburger (Activity activity, DrawerLayout drawerLayout, int width, int height, int openDrawerContentDescRes, int closeDrawerContentDescRes)
+    {
+        this(activity, drawerLayout, null, width, height, openDrawerContentDescRes, closeDrawerContentDescRes);
+    }
+
+    /**
+     * Construct a new ActionBarDrawerToggle sharing the icon of another one.
+     * <p/>
+     * <p>The icon configuration (size, style, colors, paddings...) and everything precomputed
+     * from it are shared with every toggle built from the same state, so creating a toggle in
+     * each Activity only costs the drawer position. Call {@link #mutate()} before changing the
+     * configuration of this toggle alone.</p>
+     *
+     * @param activity                  The Activity hosting the drawer
+     * @param drawerLayout              The DrawerLayout to link to the given Activity's ActionBar
+     * @param glyphState                The state of another toggle, see {@link #getGlyphState()}
+     * @param openDrawerContentDescRes  A String resource to describe the "open drawer" action
+     *                                  for accessibility
+     * @param closeDrawerContentDescRes A String resource to describe the "close drawer" action
+     *                                  for accessibility
+     */
+    public DrawerToggleHamburger (Activity activity, DrawerLayout drawerLayout, Drawable.ConstantState glyphState, int openDrawerContentDescRes, int closeDrawerContentDescRes)
+    {
+        this(activity, drawerLayout, checkGlyphState(glyphState), 0, 0, openDrawerContentDescRes, closeDrawerContentDescRes);
+    }
+
+    /**
+     * Only keeps its arguments: the icon and the theme indicator are created on first use, so
+     * building a toggle in <code>onCreate</code> costs nothing until the drawer is synced, moved
+     * or drawn (see {@link #getInitializationTimeNanos()}).
+     */
+    private DrawerToggleHamburger (Activity activity, DrawerLayout drawerLayout, Drawable.ConstantState glyphState, int width, int height, int openDrawerContentDescRes, int closeDrawerContentDescRes)
     {
         mActivity = activity;
 
@@ -157,10 +269,181 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
         mOpenDrawerContentDescRes = openDrawerContentDescRes;
         mCloseDrawerContentDescRes = closeDrawerContentDescRes;
 
-        mThemeImage = getThemeUpIndicator();
-        BitmapDrawable bd = new BitmapDrawable(activity.getResources(), Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8));
-        mSlider = new TransformDrawable(mActivity.getResources(), bd);
+        mSliderState = glyphState;
+        mSliderWidth = width;
+        mSliderHeight = height;
+    }
+
+    private static Drawable.ConstantState checkGlyphState (Drawable.ConstantState glyphState)
+    {
+        if (!(glyphState instanceof GlyphState))
+            throw new IllegalArgumentException("glyphState must come from DrawerToggleHamburger.getGlyphState()");
+
+        return glyphState;
+    }
+
+    private TransformDrawable getSlider ()
+    {
+        if (mSlider == null)
+        {
+            final long start = System.nanoTime();
+            mSlider = mSliderState != null ? (TransformDrawable) mSliderState.newDrawable() : new TransformDrawable(mActivity.getResources(), mSliderWidth, mSliderHeight);
+            if (mPendingMutate)
+            {
+                mSlider.mutate();
+            }
+            if (mPendingConfig != null)
+            {
+                // Every value was checked by the setters of the toggle
+                mSlider.setConfig(new Config(mPendingConfig));
+                mPendingConfig = null;
+            }
+            if (mPendingFrameClockSet)
+            {
+                mSlider.setFrameClock(mPendingFrameClock);
+                mPendingFrameClock = null;
+            }
+            if (mPendingThresholdSet)
+            {
+                mSlider.setInvalidationThreshold(mPendingPixelThreshold, mPendingColorThreshold);
+            }
+            mInitTimeNanos += System.nanoTime() - start;
+        }
+        return mSlider;
+    }
+
+    /**
+     * @return the configuration changes to apply when the icon is created, starting from the
+     * configuration it is created with
+     */
+    private Config.Builder getPendingConfig ()
+    {
+        if (mPendingConfig == null)
+        {
+            mPendingConfig = mSliderState != null ? new Config.Builder(((GlyphState) mSliderState).getConfig()) : new Config.Builder(mActivity.getResources(), mSliderWidth, mSliderHeight);
+        }
+        return mPendingConfig;
+    }
+
+    private FrameClock getFrameClock ()
+    {
+        if (mSlider != null)
+            return mSlider.getFrameClock();
+        if (mPendingFrameClockSet)
+            return mPendingFrameClock;
+
+        return mSliderState != null ? ((GlyphState) mSliderState).getFrameClock() : ChoreographerFrameClock.getInstance();
+    }
+
+    private GlyphDriver getDriver ()
+    {
+        if (mDriver == null)
+        {
+            mDriver = createDriver(getSlider(), mGravity);
+        }
+        return mDriver;
+    }
+
+    private GlyphDriver createDriver (TransformDrawable glyph, int gravity)
+    {
+        final GlyphDriver driver = new GlyphDriver(glyph, gravity);
+        driver.setProgressMapper(mProgressMapper);
+        driver.setAnimationDuration(mAnimationDurationMs);
+        return driver;
+    }
+
+    private Drawable getThemeImage ()
+    {
+        if (mThemeImageKey == null)
+        {
+            final long start = System.nanoTime();
+            mThemeImageKey = ThemeUpIndicatorCache.getKey(mActivity);
+            mThemeImage = getThemeUpIndicator();
+            mInitTimeNanos += System.nanoTime() - start;
+        }
+        return mThemeImage;
+    }
+
+    /**
+     * The icon and the theme indicator are not created by the constructor but the first time they
+     * are needed, usually by {@link #syncState()} in <code>onPostCreate</code>.
+     *
+     * @return time spent creating them so far, in nanoseconds. 0 if they were not needed yet.
+     */
+    public long getInitializationTimeNanos ()
+    {
+        return mInitTimeNanos;
+    }
+
+    /**
+     * @return the state of the icon, to share it with the toggles of other Activities
+     * @see #DrawerToggleHamburger(android.app.Activity, android.support.v4.widget.DrawerLayout, android.graphics.drawable.Drawable.ConstantState, int, int)
+     */
+    public Drawable.ConstantState getGlyphState ()
+    {
+        return getSlider().getConstantState();
+    }
+
+    /**
+     * Stop sharing the icon state with other toggles: the next configuration changes only
+     * apply to this toggle.
+     *
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     */
+    public DrawerToggleHamburger mutate ()
+    {
+        if (mSlider == null)
+            mPendingMutate = true;
+        else
+            mSlider.mutate();
+        return this;
+    }
+
+    /**
+     * Apply a whole configuration at once: the icon derived data is computed again once and the
+     * icon is redrawn once, whatever the number of changes. Can be called at any time, for
+     * example to switch theme.
+     *
+     * @param config the new configuration
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     */
+    public DrawerToggleHamburger setConfig (Config config)
+    {
+        if (mSlider == null)
+            mPendingConfig = new Config.Builder(config);
+        else
+            mSlider.setConfig(config);
+        return this;
+    }
+
+    /**
+     * @return the current configuration of the icon
+     */
+    public Config getConfig ()
+    {
+        if (mSlider == null)
+            return new Config(getPendingConfig());
+
+        return mSlider.getConfig();
+    }
+
+    /**
+     * Change the size of the icon
+     *
+     * @param width  The width of the icon entire (including margins). In pixel.
+     * @param height The height of the icon entire (including margins). In pixel.
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     * @throws IllegalArgumentException if the width or the height is not positive
+     */
+    public DrawerToggleHamburger setSize (int width, int height)
+    {
+        Config.checkSize(width, height);
 
+        if (mSlider == null)
+            getPendingConfig().setSize(width, height);
+        else
+            mSlider.setSize(width, height);
+        return this;
     }
 
     /**
@@ -168,10 +451,33 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
      *
      * @param paddingLR paddings in pixel.
      * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     * @throws IllegalArgumentException if the padding is negative
      */
     public DrawerToggleHamburger setPaddingLR (int paddingLR)
     {
-        mSlider.setPaddingLR(paddingLR);
+        Config.checkPadding(paddingLR);
+
+        if (mSlider == null)
+            getPendingConfig().setPaddingLR(paddingLR);
+        else
+            mSlider.setPaddingLR(paddingLR);
+        return this;
+    }
+
+    /**
+     * Set the number of bars of the icon
+     *
+     * @param barCount number of bars, from 2 to {@link GlyphGeometry#MAX_BAR_COUNT} (default 3)
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     */
+    public DrawerToggleHamburger setBarCount (int barCount)
+    {
+        Config.checkBarCount(barCount);
+
+        if (mSlider == null)
+            getPendingConfig().setBarCount(barCount);
+        else
+            mSlider.setBarCount(barCount);
         return this;
     }
 
@@ -180,10 +486,16 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
      *
      * @param barHeight bar height in pixel.
      * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     * @throws IllegalArgumentException if the bar height is not positive
      */
     public DrawerToggleHamburger setBarHeight (int barHeight)
     {
-        mSlider.setBarHeight(barHeight);
+        Config.checkBarHeight(barHeight);
+
+        if (mSlider == null)
+            getPendingConfig().setBarHeight(barHeight);
+        else
+            mSlider.setBarHeight(barHeight);
         return this;
     }
 
@@ -192,10 +504,16 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
      *
      * @param paddingTB paddings in pixel
      * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     * @throws IllegalArgumentException if the padding is negative
      */
     public DrawerToggleHamburger setPaddingTB (int paddingTB)
     {
-        mSlider.setPaddingTB(paddingTB);
+        Config.checkPadding(paddingTB);
+
+        if (mSlider == null)
+            getPendingConfig().setPaddingTB(paddingTB);
+        else
+            mSlider.setPaddingTB(paddingTB);
         return this;
     }
 
@@ -207,7 +525,10 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
      */
     public DrawerToggleHamburger setOpenedColor (int color)
     {
-        mSlider.setOpenedColor(color);
+        if (mSlider == null)
+            getPendingConfig().setOpenedColor(color);
+        else
+            mSlider.setOpenedColor(color);
         return this;
     }
 
@@ -219,7 +540,31 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
      */
     public DrawerToggleHamburger setClosedColor (int color)
     {
-        mSlider.setClosedColor(color);
+        if (mSlider == null)
+            getPendingConfig().setClosedColor(color);
+        else
+            mSlider.setClosedColor(color);
+        return this;
+    }
+
+    /**
+     * Set how the icon color goes from the closed color to the opened color
+     *
+     * @param colorSpace value for the new color space (default {@link #COLOR_SPACE_SRGB})
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     * @throws IllegalArgumentException if the color space is unknown
+     * @see #COLOR_SPACE_SRGB
+     * @see #COLOR_SPACE_LINEAR_RGB
+     * @see #COLOR_SPACE_HSV
+     */
+    public DrawerToggleHamburger setColorSpace (int colorSpace)
+    {
+        Config.checkColorSpace(colorSpace);
+
+        if (mSlider == null)
+            getPendingConfig().setColorSpace(colorSpace);
+        else
+            mSlider.setColorSpace(colorSpace);
         return this;
     }
 
@@ -231,156 +576,456 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
      */
     public DrawerToggleHamburger setRounded (boolean rounded)
     {
-        mSlider.setRounded(rounded);
+        if (mSlider == null)
+            getPendingConfig().setRounded(rounded);
+        else
+            mSlider.setRounded(rounded);
         return this;
     }
 
     /**
      * Set the style shape for opened drawer
      *
-     * @param style value for the new style (default {@link #STYLE_CROSS})
+     * @param style value for the new style (default {@link #STYLE_CROSS}), or the id of a custom
+     *              style returned by {@link GlyphStyles#register(GlyphStyle)}
      * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     * @throws IllegalArgumentException if no style has this id
      * @see #STYLE_ARROW
      * @see #STYLE_CARET
      * @see #STYLE_CROSS
+     * @see #STYLE_DOTS
      */
     public DrawerToggleHamburger setStyleShape (int style)
     {
-        if (style != STYLE_ARROW && style != STYLE_CARET && style != STYLE_CROSS)
-            mSlider.setStyleShape(STYLE_CROSS);
+        Config.checkStyle(style);
+
+        if (mSlider == null)
+            getPendingConfig().setStyleShape(style);
         else
             mSlider.setStyleShape(style);
+        return this;
+    }
 
+    /**
+     * Animate the icon from its current shape to another style, at any drawer position. The
+     * animation follows the frame clock (see {@link #setFrameClock(FrameClock)}), without one
+     * the style changes at once. An animated change stops sharing the icon state with other
+     * toggles, as {@link #mutate()} does.
+     *
+     * @param style      value for the new style, see {@link #setStyleShape(int)}
+     * @param durationMs duration of the animation in milliseconds, 0 to change the style at once
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     * @throws IllegalArgumentException if no style has this id
+     */
+    public DrawerToggleHamburger morphToStyle (int style, long durationMs)
+    {
+        Config.checkStyle(style);
+
+        // Before the icon is created nothing was drawn to animate from
+        if (mSlider == null)
+            getPendingConfig().setStyleShape(style);
+        else
+            mSlider.morphToStyle(style, durationMs);
         return this;
     }
 
     /**
-     * @return true if the enhanced drawer indicator is enabled, false otherwise
-     * @see #setDrawerIndicatorEnabled(boolean)
+     * Precompute the glyph for a fixed number of positions, so sliding the drawer only looks
+     * the geometry and the color up in a table instead of computing them for every frame.
+     * The table is rebuilt when the bounds or the configuration of the icon change.
+     *
+     * @param frameCount number of precomputed positions (for example 64, 128 or 256),
+     *                   0 to compute every frame (default)
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     * @see #setKeyframeInterpolation(boolean)
      */
-    public boolean isDrawerIndicatorEnabled ()
+    public DrawerToggleHamburger setKeyframeCount (int frameCount)
     {
-        return mDrawerIndicatorEnabled;
+        Config.checkKeyframeCount(frameCount);
+
+        if (mSlider == null)
+            getPendingConfig().setKeyframeCount(frameCount);
+        else
+            mSlider.setKeyframeCount(frameCount);
+        return this;
     }
 
     /**
-     * Enable or disable the drawer indicator. The indicator defaults to enabled.
-     * <p/>
-     * <p>When the indicator is disabled, the <code>ActionBar</code> will revert to displaying
-     * the home-as-up indicator provided by the <code>Activity</code>'s theme in the
-     * <code>android.R.attr.homeAsUpIndicator</code> attribute instead of the animated
-     * drawer glyph.</p>
+     * Set if a position between two precomputed frames blends their geometry and color or uses the
+     * nearest one. Only used when a keyframe count is set.
      *
-     * @param enable true to enable, false to disable
+     * @param interpolate true to blend the two closest frames, false to snap to the nearest one (default)
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     * @see #setKeyframeCount(int)
      */
-    public void setDrawerIndicatorEnabled (boolean enable)
+    public DrawerToggleHamburger setKeyframeInterpolation (boolean interpolate)
     {
-        if (enable != mDrawerIndicatorEnabled)
-        {
-            if (enable)
-            {
-                setActionBarUpIndicator(mSlider, mDrawerLayout.isDrawerOpen(GravityCompat.START) ? mCloseDrawerContentDescRes : mOpenDrawerContentDescRes);
-            }
-            else
-            {
-                setActionBarUpIndicator(mThemeImage, 0);
-            }
-            mDrawerIndicatorEnabled = enable;
-        }
+        if (mSlider == null)
+            getPendingConfig().setKeyframeInterpolation(interpolate);
+        else
+            mSlider.setKeyframeInterpolation(interpolate);
+        return this;
     }
 
     /**
-     * This method should always be called by your <code>Activity</code>'s
-     * {@link android.app.Activity#onConfigurationChanged(android.content.res.Configuration) onConfigurationChanged}
-     * method.
+     * Set how the icon is drawn
      *
-     * @param newConfig The new configuration
+     * @param renderMode value for the new render mode (default {@link #RENDER_MODE_CANVAS})
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     * @throws IllegalArgumentException if the render mode is unknown
+     * @see #RENDER_MODE_CANVAS
+     * @see #RENDER_MODE_ATLAS
+     * @see #RENDER_MODE_LINES
      */
-    public void onConfigurationChanged (Configuration newConfig)
+    public DrawerToggleHamburger setRenderMode (int renderMode)
     {
-        // Reload drawables that can change with configuration
-        mThemeImage = getThemeUpIndicator();
-        syncState();
+        Config.checkRenderMode(renderMode);
+
+        if (mSlider == null)
+            getPendingConfig().setRenderMode(renderMode);
+        else
+            mSlider.setRenderMode(renderMode);
+        return this;
     }
 
     /**
-     * Synchronize the state of the drawer indicator/affordance with the linked DrawerLayout.
-     * <p/>
-     * <p>This should be called from your <code>Activity</code>'s
-     * {@link android.app.Activity#onPostCreate(android.os.Bundle) onPostCreate} method to synchronize after
-     * the DrawerLayout's instance state has been restored, and any other time when the state
-     * may have diverged in such a way that the ActionBarDrawerToggle was not notified.
-     * (For example, if you stop forwarding appropriate drawer events for a period of time.)</p>
+     * Set the clock used to redraw the icon: however many times the drawer moves during a frame,
+     * the icon is invalidated at most once, at the start of the next frame.
+     *
+     * @param frameClock the clock, {@link ChoreographerFrameClock#getInstance()} by default, or null
+     *                   to invalidate the icon as soon as it changes
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
      */
-    public void syncState ()
+    public DrawerToggleHamburger setFrameClock (FrameClock frameClock)
     {
-        if (mDrawerLayout.isDrawerOpen(GravityCompat.START))
+        if (mSlider == null)
         {
-            mSlider.setPosition(1);
+            mPendingFrameClock = frameClock;
+            mPendingFrameClockSet = true;
         }
         else
         {
-            mSlider.setPosition(0);
+            mSlider.setFrameClock(frameClock);
         }
-
-        if (mDrawerIndicatorEnabled)
+        if (mDriver != null)
+        {
+            mDriver.setFrameClock(frameClock);
+        }
+        if (mOtherDriver != null)
         {
-            setActionBarUpIndicator(mSlider, mDrawerLayout.isDrawerOpen(GravityCompat.START) ? mCloseDrawerContentDescRes : mOpenDrawerContentDescRes);
+            mOtherDriver.setFrameClock(frameClock);
         }
+        return this;
     }
 
     /**
-     * This method should be called by your <code>Activity</code>'s
-     * {@link android.app.Activity#onOptionsItemSelected(android.view.MenuItem) onOptionsItemSelected} method.
-     * If it returns true, your <code>onOptionsItemSelected</code> method should return true and
-     * skip further processing.
+     * Set how the slide offset of the drawer moves the icon.
      *
-     * @param item the MenuItem instance representing the selected menu item
-     * @return true if the event was handled and further processing should not occur
+     * @param progressMapper the mapping, {@link GlyphProgressMapper#LEGACY} by default
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
      */
-    public boolean onOptionsItemSelected (MenuItem item)
+    public DrawerToggleHamburger setProgressMapper (GlyphProgressMapper progressMapper)
     {
-        if (item != null && item.getItemId() == ID_HOME && mDrawerIndicatorEnabled)
+        if (progressMapper == null)
+            throw new IllegalArgumentException("progressMapper must not be null");
+
+        mProgressMapper = progressMapper;
+        if (mDriver != null)
         {
-            if (mDrawerLayout.isDrawerVisible(GravityCompat.START))
-            {
-                mDrawerLayout.closeDrawer(GravityCompat.START);
-            }
-            else
-            {
-                mDrawerLayout.openDrawer(GravityCompat.START);
-            }
-            return true;
+            mDriver.setProgressMapper(progressMapper);
         }
-        return false;
+        if (mOtherDriver != null)
+        {
+            mOtherDriver.setProgressMapper(progressMapper);
+        }
+        return this;
     }
 
     /**
-     * {@link android.support.v4.widget.DrawerLayout.DrawerListener} callback method. If you do not use your
-     * ActionBarDrawerToggle instance directly as your DrawerLayout's listener, you should call
-     * through to this method from your own listener object.
+     * Animate the icon on its own instead of only following the slide events of the drawer.
+     * <p/>
+     * <p>When the drawer opens or closes by itself (home button, settling after a drag), the icon
+     * eases to its new state over the given duration. While the drawer is dragged, the icon
+     * follows it extrapolated with its velocity, and eases to the state the drawer is predicted
+     * to settle at as soon as it is released. The icon then stays smooth when slide events are
+     * delivered irregularly. Needs a frame clock, see {@link #setFrameClock(FrameClock)}.</p>
      *
-     * @param drawerView  The child view that was moved
-     * @param slideOffset The new offset of this drawer within its range, from 0-1
+     * @param durationMs duration of an animation from closed to opened, or 0 to only follow the
+     *                   slide events (default)
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
      */
-    @Override
-    public void onDrawerSlide (View drawerView, float slideOffset)
+    public DrawerToggleHamburger setAnimationDuration (long durationMs)
     {
-        float glyphOffset = mSlider.getPosition();
-        if (slideOffset > 0.5f)
+        if (durationMs < 0)
+            throw new IllegalArgumentException("durationMs must be >= 0");
+
+        mAnimationDurationMs = durationMs;
+        if (mDriver != null)
         {
-            glyphOffset = Math.max(glyphOffset, Math.max(0.f, slideOffset - 0.5f) * 2);
+            mDriver.setAnimationDuration(durationMs);
         }
-        else
+        if (mOtherDriver != null)
         {
-            glyphOffset = Math.min(glyphOffset, slideOffset * 2);
+            mOtherDriver.setAnimationDuration(durationMs);
         }
-        mSlider.setPosition(glyphOffset);
+        return this;
     }
 
     /**
-     * {@link android.support.v4.widget.DrawerLayout.DrawerListener} callback method. If you do not use your
-     * ActionBarDrawerToggle instance directly as your DrawerLayout's listener, you should call
+     * Set the drawer followed by the icon and opened or closed by the home button. Call
+     * {@link #syncState()} afterwards if the drawer may be open.
+     *
+     * @param gravity {@link GravityCompat#START} (default), {@link GravityCompat#END},
+     *                {@link android.view.Gravity#LEFT} or {@link android.view.Gravity#RIGHT}
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     */
+    public DrawerToggleHamburger setDrawerGravity (int gravity)
+    {
+        if (!GlyphDriver.isValidGravity(gravity))
+            throw new IllegalArgumentException("Unknown gravity " + gravity);
+
+        mGravity = gravity;
+        if (mDriver != null)
+        {
+            mDriver.setGravity(gravity);
+        }
+        if (mOtherDriver != null)
+        {
+            mOtherDriver.setGravity(GlyphDriver.getOppositeGravity(gravity));
+        }
+        return this;
+    }
+
+    /**
+     * Icon following the drawer on the other side of the layout, for layouts with two drawers.
+     * <p/>
+     * <p>Until this is first called, the events of the other drawer are ignored; from then on they
+     * move this icon, from the same listener callbacks as the main one. Both icons share their
+     * configuration and everything precomputed from it, only their positions are their own. The
+     * home button still only toggles the main drawer: show this icon anywhere else, for example
+     * in a menu item.</p>
+     *
+     * @return the icon of the other drawer
+     */
+    public Drawable getOtherDrawerGlyph ()
+    {
+        if (mOtherDriver == null)
+        {
+            mOtherDriver = createDriver(getSlider().createLinkedGlyph(), GlyphDriver.getOppositeGravity(mGravity));
+            mOtherDriver.sync(mDrawerLayout.isDrawerOpen(mOtherDriver.getGravity()));
+        }
+        return mOtherDriver.getGlyph();
+    }
+
+    /**
+     * Set the smallest change of the icon worth redrawing it when the drawer moves. The icon is
+     * always redrawn when the configuration changes or when the drawer is fully opened or closed.
+     *
+     * @param pixels      smallest move of the bars, in pixel (default 0.25)
+     * @param colorLevels smallest change of a color channel, from 0 to 255 (default 1)
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     */
+    public DrawerToggleHamburger setInvalidationThreshold (float pixels, int colorLevels)
+    {
+        if (mSlider == null)
+        {
+            mPendingPixelThreshold = pixels;
+            mPendingColorThreshold = colorLevels;
+            mPendingThresholdSet = true;
+        }
+        else
+        {
+            mSlider.setInvalidationThreshold(pixels, colorLevels);
+        }
+        return this;
+    }
+
+    /**
+     * Set how the icon is rendered while the drawer is idle, dragged or settling.
+     *
+     * @param qualityPolicy the policy, for example a {@link MotionQualityPolicy}, or null to
+     *                      always render in full quality (default)
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     */
+    public DrawerToggleHamburger setQualityPolicy (QualityPolicy qualityPolicy)
+    {
+        mQualityPolicy = qualityPolicy;
+        return this;
+    }
+
+    /**
+     * @param listener notified when the quality policy changes the rendering of the icon, or null
+     * @return {@link pauland.mypplication.lib.DrawerToggleHamburger}
+     */
+    public DrawerToggleHamburger setQualityListener (QualityPolicy.Listener listener)
+    {
+        mQualityListener = listener;
+        return this;
+    }
+
+    /**
+     * @return true if the enhanced drawer indicator is enabled, false otherwise
+     * @see #setDrawerIndicatorEnabled(boolean)
+     */
+    public boolean isDrawerIndicatorEnabled ()
+    {
+        return mDrawerIndicatorEnabled;
+    }
+
+    /**
+     * Enable or disable the drawer indicator. The indicator defaults to enabled.
+     * <p/>
+     * <p>When the indicator is disabled, the <code>ActionBar</code> will revert to displaying
+     * the home-as-up indicator provided by the <code>Activity</code>'s theme in the
+     * <code>android.R.attr.homeAsUpIndicator</code> attribute instead of the animated
+     * drawer glyph.</p>
+     *
+     * @param enable true to enable, false to disable
+     */
+    public void setDrawerIndicatorEnabled (boolean enable)
+    {
+        if (enable != mDrawerIndicatorEnabled)
+        {
+            if (enable)
+            {
+                setActionBarUpIndicator(getSlider(), mDrawerLayout.isDrawerOpen(mGravity) ? mCloseDrawerContentDescRes : mOpenDrawerContentDescRes);
+            }
+            else
+            {
+                setActionBarUpIndicator(getThemeImage(), 0);
+            }
+            mDrawerIndicatorEnabled = enable;
+        }
+    }
+
+    /**
+     * This method should always be called by your <code>Activity</code>'s
+     * {@link android.app.Activity#onConfigurationChanged(android.content.res.Configuration) onConfigurationChanged}
+     * method.
+     *
+     * @param newConfig The new configuration
+     */
+    public void onConfigurationChanged (Configuration newConfig)
+    {
+        // Reload drawables that can change with configuration, unless none of the qualifiers
+        // the theme indicator depends on changed
+        if (mThemeImageKey != null)
+        {
+            final ThemeUpIndicatorCache.Key themeImageKey = ThemeUpIndicatorCache.getKey(mActivity);
+            if (mActivityImpl != null || !themeImageKey.equals(mThemeImageKey))
+            {
+                mThemeImageKey = themeImageKey;
+                mThemeImage = getThemeUpIndicator();
+            }
+        }
+
+        // The action bar may have been rebuilt, push the indicator again
+        mAppliedIndicator = null;
+        mAppliedDescRes = NO_DESCRIPTION;
+        syncState();
+    }
+
+    /**
+     * Synchronize the state of the drawer indicator/affordance with the linked DrawerLayout.
+     * <p/>
+     * <p>This should be called from your <code>Activity</code>'s
+     * {@link android.app.Activity#onPostCreate(android.os.Bundle) onPostCreate} method to synchronize after
+     * the DrawerLayout's instance state has been restored, and any other time when the state
+     * may have diverged in such a way that the ActionBarDrawerToggle was not notified.
+     * (For example, if you stop forwarding appropriate drawer events for a period of time.)</p>
+     */
+    public void syncState ()
+    {
+        final boolean open = mDrawerLayout.isDrawerOpen(mGravity);
+        getDriver().sync(open);
+        if (mOtherDriver != null)
+        {
+            mOtherDriver.sync(mDrawerLayout.isDrawerOpen(mOtherDriver.getGravity()));
+        }
+
+        if (mDrawerIndicatorEnabled)
+        {
+            setActionBarUpIndicator(getSlider(), open ? mCloseDrawerContentDescRes : mOpenDrawerContentDescRes);
+        }
+    }
+
+    /**
+     * This method should be called by your <code>Activity</code>'s
+     * {@link android.app.Activity#onOptionsItemSelected(android.view.MenuItem) onOptionsItemSelected} method.
+     * If it returns true, your <code>onOptionsItemSelected</code> method should return true and
+     * skip further processing.
+     *
+     * @param item the MenuItem instance representing the selected menu item
+     * @return true if the event was handled and further processing should not occur
+     */
+    public boolean onOptionsItemSelected (MenuItem item)
+    {
+        if (item != null && item.getItemId() == ID_HOME && mDrawerIndicatorEnabled)
+        {
+            final boolean close = mDrawerLayout.isDrawerVisible(mGravity);
+            getDriver().onToggle(!close);
+            if (close)
+            {
+                mDrawerLayout.closeDrawer(mGravity);
+            }
+            else
+            {
+                mDrawerLayout.openDrawer(mGravity);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * {@link android.support.v4.widget.DrawerLayout.DrawerListener} callback method. If you do not use your
+     * ActionBarDrawerToggle instance directly as your DrawerLayout's listener, you should call
+     * through to this method from your own listener object.
+     *
+     * @param drawerView  The child view that was moved
+     * @param slideOffset The new offset of this drawer within its range, from 0-1
+     */
+    @Override
+    public void onDrawerSlide (View drawerView, float slideOffset)
+    {
+        final GlyphDriver driver = getDriver();
+        if (driver.isDrawer(drawerView))
+        {
+            driver.onSlide(slideOffset);
+        }
+        else if (mOtherDriver != null)
+        {
+            mOtherDriver.onSlide(slideOffset);
+        }
+    }
+
+    /**
+     * {@link DrawerListenerMultiplexer.GlyphListener} callback method, called instead of
+     * {@link #onDrawerSlide(View, float)} when the toggle is added to a
+     * {@link DrawerListenerMultiplexer}: the progress mapped by the multiplexer replaces the one
+     * of {@link #setProgressMapper(GlyphProgressMapper)}.
+     *
+     * @param drawerView  The child view that was moved
+     * @param slideOffset The new offset of this drawer within its range, from 0-1
+     * @param progress    The new position of the icon, from 0-1
+     */
+    @Override
+    public void onGlyphProgress (View drawerView, float slideOffset, float progress)
+    {
+        final GlyphDriver driver = getDriver();
+        if (driver.isDrawer(drawerView))
+        {
+            driver.onSlide(slideOffset, progress);
+        }
+        else if (mOtherDriver != null)
+        {
+            mOtherDriver.onSlide(slideOffset, progress);
+        }
+    }
+
+    /**
+     * {@link android.support.v4.widget.DrawerLayout.DrawerListener} callback method. If you do not use your
+     * ActionBarDrawerToggle instance directly as your DrawerLayout's listener, you should call
      * through to this method from your own listener object.
      *
      * @param drawerView Drawer view that is now open
@@ -388,7 +1033,17 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
     @Override
     public void onDrawerOpened (View drawerView)
     {
-        mSlider.setPosition(1);
+        final GlyphDriver driver = getDriver();
+        if (!driver.isDrawer(drawerView))
+        {
+            if (mOtherDriver != null)
+            {
+                mOtherDriver.onOpenedOrClosed(true);
+            }
+            return;
+        }
+
+        driver.onOpenedOrClosed(true);
         if (mDrawerIndicatorEnabled)
         {
             setActionBarDescription(mCloseDrawerContentDescRes);
@@ -405,7 +1060,17 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
     @Override
     public void onDrawerClosed (View drawerView)
     {
-        mSlider.setPosition(0);
+        final GlyphDriver driver = getDriver();
+        if (!driver.isDrawer(drawerView))
+        {
+            if (mOtherDriver != null)
+            {
+                mOtherDriver.onOpenedOrClosed(false);
+            }
+            return;
+        }
+
+        driver.onOpenedOrClosed(false);
         if (mDrawerIndicatorEnabled)
         {
             setActionBarDescription(mOpenDrawerContentDescRes);
@@ -422,6 +1087,45 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
     @Override
     public void onDrawerStateChanged (int newState)
     {
+        getDriver().onStateChanged(newState);
+        if (mOtherDriver != null)
+        {
+            mOtherDriver.onStateChanged(newState);
+        }
+
+        final QualityPolicy policy = mQualityPolicy;
+        final int quality = policy != null ? policy.getQuality(newState) : QualityPolicy.QUALITY_FULL;
+        final boolean hardwareLayer = policy != null && policy.isHardwareLayerEnabled(newState);
+
+        final int oldQuality = getSlider().getQuality();
+        final boolean oldHardwareLayer = mHardwareLayerView != null;
+        getSlider().setQuality(quality);
+        if (mOtherDriver != null)
+        {
+            mOtherDriver.getGlyph().setQuality(quality);
+        }
+        setHardwareLayer(hardwareLayer);
+        if (mQualityListener != null && (quality != oldQuality || oldHardwareLayer != (mHardwareLayerView != null)))
+        {
+            mQualityListener.onQualityChanged(newState, quality, mHardwareLayerView != null);
+        }
+    }
+
+    private void setHardwareLayer (boolean enabled)
+    {
+        if (enabled && mHardwareLayerView == null && mActivityImpl == null)
+        {
+            mHardwareLayerView = IMPL.getUpIndicatorView(mActivity);
+            if (mHardwareLayerView != null)
+            {
+                ViewCompat.setLayerType(mHardwareLayerView, ViewCompat.LAYER_TYPE_HARDWARE, null);
+            }
+        }
+        else if (!enabled && mHardwareLayerView != null)
+        {
+            ViewCompat.setLayerType(mHardwareLayerView, ViewCompat.LAYER_TYPE_NONE, null);
+            mHardwareLayerView = null;
+        }
     }
 
     Drawable getThemeUpIndicator ()
@@ -435,6 +1139,15 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
 
     void setActionBarUpIndicator (Drawable upDrawable, int contentDescRes)
     {
+        // The indicator comes with its own description
+        cancelPendingDescription();
+        if (upDrawable == mAppliedIndicator && contentDescRes == mAppliedDescRes)
+        {
+            return;
+        }
+        mAppliedIndicator = upDrawable;
+        mAppliedDescRes = contentDescRes;
+
         if (mActivityImpl != null)
         {
             mActivityImpl.setActionBarUpIndicator(upDrawable, contentDescRes);
@@ -443,8 +1156,34 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
         mSetIndicatorInfo = IMPL.setActionBarUpIndicator(mSetIndicatorInfo, mActivity, upDrawable, contentDescRes);
     }
 
+    /**
+     * Update the content description on the next frame, so a burst of open/close only updates
+     * (and relayouts) the action bar once.
+     */
     void setActionBarDescription (int contentDescRes)
     {
+        mPendingDescRes = contentDescRes;
+        final FrameClock frameClock = getFrameClock();
+        if (frameClock == null)
+        {
+            applyPendingDescription();
+        }
+        else
+        {
+            frameClock.postFrameCallback(mDescriptionUpdate);
+        }
+    }
+
+    private void applyPendingDescription ()
+    {
+        final int contentDescRes = mPendingDescRes;
+        mPendingDescRes = NO_DESCRIPTION;
+        if (contentDescRes == NO_DESCRIPTION || contentDescRes == mAppliedDescRes)
+        {
+            return;
+        }
+        mAppliedDescRes = contentDescRes;
+
         if (mActivityImpl != null)
         {
             mActivityImpl.setActionBarDescription(contentDescRes);
@@ -453,6 +1192,400 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
         mSetIndicatorInfo = IMPL.setActionBarDescription(mSetIndicatorInfo, mActivity, contentDescRes);
     }
 
+    private void cancelPendingDescription ()
+    {
+        if (mPendingDescRes != NO_DESCRIPTION)
+        {
+            mPendingDescRes = NO_DESCRIPTION;
+            final FrameClock frameClock = getFrameClock();
+            if (frameClock != null)
+            {
+                frameClock.removeFrameCallback(mDescriptionUpdate);
+            }
+        }
+    }
+
+
+    /**
+     * Immutable configuration of the icon, see {@link #setConfig(Config)}.
+     */
+    public static final class Config
+    {
+        private final int     mWidth, mHeight;
+        private final int     mStyle;
+        private final int     mClosedColor, mOpenedColor, mColorSpace;
+        private final int     mBarCount;
+        private final int     mPaddingLR, mPaddingTB, mBarHeight;
+        private final boolean mRounded;
+        private final int     mRenderMode;
+        private final int     mKeyframeCount;
+        private final boolean mKeyframeInterpolation;
+
+        private Config (Builder builder)
+        {
+            mWidth = builder.mWidth;
+            mHeight = builder.mHeight;
+            mStyle = builder.mStyle;
+            mClosedColor = builder.mClosedColor;
+            mOpenedColor = builder.mOpenedColor;
+            mColorSpace = builder.mColorSpace;
+            mBarCount = builder.mBarCount;
+            mPaddingLR = builder.mPaddingLR;
+            mPaddingTB = builder.mPaddingTB;
+            mBarHeight = builder.mBarHeight;
+            mRounded = builder.mRounded;
+            mRenderMode = builder.mRenderMode;
+            mKeyframeCount = builder.mKeyframeCount;
+            mKeyframeInterpolation = builder.mKeyframeInterpolation;
+        }
+
+        public int getWidth ()
+        {
+            return mWidth;
+        }
+
+        public int getHeight ()
+        {
+            return mHeight;
+        }
+
+        public int getStyle ()
+        {
+            return mStyle;
+        }
+
+        public int getClosedColor ()
+        {
+            return mClosedColor;
+        }
+
+        public int getOpenedColor ()
+        {
+            return mOpenedColor;
+        }
+
+        public int getColorSpace ()
+        {
+            return mColorSpace;
+        }
+
+        public int getBarCount ()
+        {
+            return mBarCount;
+        }
+
+        public int getPaddingLR ()
+        {
+            return mPaddingLR;
+        }
+
+        public int getPaddingTB ()
+        {
+            return mPaddingTB;
+        }
+
+        public int getBarHeight ()
+        {
+            return mBarHeight;
+        }
+
+        public boolean isRounded ()
+        {
+            return mRounded;
+        }
+
+        public int getRenderMode ()
+        {
+            return mRenderMode;
+        }
+
+        public int getKeyframeCount ()
+        {
+            return mKeyframeCount;
+        }
+
+        public boolean isKeyframeInterpolation ()
+        {
+            return mKeyframeInterpolation;
+        }
+
+        @Override
+        public boolean equals (Object o)
+        {
+            if (this == o)
+                return true;
+            if (!(o instanceof Config))
+                return false;
+
+            final Config config = (Config) o;
+            return mWidth == config.mWidth && mHeight == config.mHeight && mStyle == config.mStyle && mClosedColor == config.mClosedColor && mOpenedColor == config.mOpenedColor && mColorSpace == config.mColorSpace && mBarCount == config.mBarCount && mPaddingLR == config.mPaddingLR && mPaddingTB == config.mPaddingTB && mBarHeight == config.mBarHeight && mRounded == config.mRounded && mRenderMode == config.mRenderMode && mKeyframeCount == config.mKeyframeCount && mKeyframeInterpolation == config.mKeyframeInterpolation;
+        }
+
+        @Override
+        public int hashCode ()
+        {
+            int result = mWidth;
+            result = 31 * result + mHeight;
+            result = 31 * result + mStyle;
+            result = 31 * result + mClosedColor;
+            result = 31 * result + mOpenedColor;
+            result = 31 * result + mColorSpace;
+            result = 31 * result + mBarCount;
+            result = 31 * result + mPaddingLR;
+            result = 31 * result + mPaddingTB;
+            result = 31 * result + mBarHeight;
+            result = 31 * result + (mRounded ? 1 : 0);
+            result = 31 * result + mRenderMode;
+            result = 31 * result + mKeyframeCount;
+            result = 31 * result + (mKeyframeInterpolation ? 1 : 0);
+            return result;
+        }
+
+        static void checkSize (int width, int height)
+        {
+            if (width <= 0 || height <= 0)
+                throw new IllegalArgumentException("Invalid size " + width + "x" + height);
+        }
+
+        static void checkStyle (int style)
+        {
+            if (GlyphStyles.get(style) == null)
+                throw new IllegalArgumentException("Unknown style " + style);
+        }
+
+        static void checkColorSpace (int colorSpace)
+        {
+            if (colorSpace != COLOR_SPACE_SRGB && colorSpace != COLOR_SPACE_LINEAR_RGB && colorSpace != COLOR_SPACE_HSV)
+                throw new IllegalArgumentException("Unknown color space " + colorSpace);
+        }
+
+        static void checkRenderMode (int renderMode)
+        {
+            if (renderMode != RENDER_MODE_CANVAS && renderMode != RENDER_MODE_ATLAS && renderMode != RENDER_MODE_LINES)
+                throw new IllegalArgumentException("Unknown render mode " + renderMode);
+        }
+
+        static void checkBarCount (int barCount)
+        {
+            if (barCount < GlyphGeometry.MIN_BAR_COUNT || barCount > GlyphGeometry.MAX_BAR_COUNT)
+                throw new IllegalArgumentException("barCount must be between " + GlyphGeometry.MIN_BAR_COUNT + " and " + GlyphGeometry.MAX_BAR_COUNT + ", got " + barCount);
+        }
+
+        static void checkKeyframeCount (int frameCount)
+        {
+            if (frameCount != 0 && frameCount < 2)
+                throw new IllegalArgumentException("keyframeCount must be 0 or at least 2, got " + frameCount);
+        }
+
+        static void checkPadding (int padding)
+        {
+            if (padding < 0)
+                throw new IllegalArgumentException("Invalid padding " + padding);
+        }
+
+        static void checkBarHeight (int barHeight)
+        {
+            if (barHeight <= 0)
+                throw new IllegalArgumentException("Invalid bar height " + barHeight);
+        }
+
+        /**
+         * Builds a {@link Config}, every value is checked once by {@link #build()}.
+         */
+        public static final class Builder
+        {
+            private int     mWidth, mHeight;
+            private int     mStyle       = STYLE_CROSS;
+            private int     mClosedColor = Color.WHITE, mOpenedColor = Color.WHITE;
+            private int     mColorSpace  = COLOR_SPACE_SRGB;
+            private int     mBarCount    = GlyphGeometry.DEFAULT_BAR_COUNT;
+            private int     mPaddingLR, mPaddingTB, mBarHeight;
+            private boolean mRounded;
+            private int     mRenderMode  = RENDER_MODE_CANVAS;
+            private int     mKeyframeCount;
+            private boolean mKeyframeInterpolation;
+
+            private Builder ()
+            {
+            }
+
+            /**
+             * Start from the default configuration.
+             *
+             * @param resources used to convert the default paddings and bar height to pixels
+             * @param width     The width of the icon entire (including margins). In pixel.
+             * @param height    The height of the icon entire (including margins). In pixel.
+             */
+            public Builder (Resources resources, int width, int height)
+            {
+                mWidth = width;
+                mHeight = height;
+                mPaddingLR = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 8, resources.getDisplayMetrics());
+                mPaddingTB = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 10, resources.getDisplayMetrics());
+                mBarHeight = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 2, resources.getDisplayMetrics());
+            }
+
+            /**
+             * Start from an existing configuration.
+             */
+            public Builder (Config config)
+            {
+                mWidth = config.mWidth;
+                mHeight = config.mHeight;
+                mStyle = config.mStyle;
+                mClosedColor = config.mClosedColor;
+                mOpenedColor = config.mOpenedColor;
+                mColorSpace = config.mColorSpace;
+                mBarCount = config.mBarCount;
+                mPaddingLR = config.mPaddingLR;
+                mPaddingTB = config.mPaddingTB;
+                mBarHeight = config.mBarHeight;
+                mRounded = config.mRounded;
+                mRenderMode = config.mRenderMode;
+                mKeyframeCount = config.mKeyframeCount;
+                mKeyframeInterpolation = config.mKeyframeInterpolation;
+            }
+
+            /**
+             * @see DrawerToggleHamburger#setSize(int, int)
+             */
+            public Builder setSize (int width, int height)
+            {
+                mWidth = width;
+                mHeight = height;
+                return this;
+            }
+
+            /**
+             * @see DrawerToggleHamburger#setStyleShape(int)
+             */
+            public Builder setStyleShape (int style)
+            {
+                mStyle = style;
+                return this;
+            }
+
+            /**
+             * @see DrawerToggleHamburger#setBarCount(int)
+             */
+            public Builder setBarCount (int barCount)
+            {
+                mBarCount = barCount;
+                return this;
+            }
+
+            /**
+             * @see DrawerToggleHamburger#setClosedColor(int)
+             */
+            public Builder setClosedColor (int color)
+            {
+                mClosedColor = color;
+                return this;
+            }
+
+            /**
+             * @see DrawerToggleHamburger#setOpenedColor(int)
+             */
+            public Builder setOpenedColor (int color)
+            {
+                mOpenedColor = color;
+                return this;
+            }
+
+            /**
+             * @see DrawerToggleHamburger#setColorSpace(int)
+             */
+            public Builder setColorSpace (int colorSpace)
+            {
+                mColorSpace = colorSpace;
+                return this;
+            }
+
+            /**
+             * @see DrawerToggleHamburger#setPaddingLR(int)
+             */
+            public Builder setPaddingLR (int paddingLR)
+            {
+                mPaddingLR = paddingLR;
+                return this;
+            }
+
+            /**
+             * @see DrawerToggleHamburger#setPaddingTB(int)
+             */
+            public Builder setPaddingTB (int paddingTB)
+            {
+                mPaddingTB = paddingTB;
+                return this;
+            }
+
+            /**
+             * @see DrawerToggleHamburger#setBarHeight(int)
+             */
+            public Builder setBarHeight (int barHeight)
+            {
+                mBarHeight = barHeight;
+                return this;
+            }
+
+            /**
+             * @see DrawerToggleHamburger#setRounded(boolean)
+             */
+            public Builder setRounded (boolean rounded)
+            {
+                mRounded = rounded;
+                return this;
+            }
+
+            /**
+             * @see DrawerToggleHamburger#setRenderMode(int)
+             */
+            public Builder setRenderMode (int renderMode)
+            {
+                mRenderMode = renderMode;
+                return this;
+            }
+
+            /**
+             * @see DrawerToggleHamburger#setKeyframeCount(int)
+             */
+            public Builder setKeyframeCount (int frameCount)
+            {
+                mKeyframeCount = frameCount;
+                return this;
+            }
+
+            /**
+             * @see DrawerToggleHamburger#setKeyframeInterpolation(boolean)
+             */
+            public Builder setKeyframeInterpolation (boolean interpolate)
+            {
+                mKeyframeInterpolation = interpolate;
+                return this;
+            }
+
+            /**
+             * @return the configuration
+             * @throws IllegalArgumentException if a value is unknown or the bars do not fit in the icon
+             */
+            public Config build ()
+            {
+                checkStyle(mStyle);
+                checkColorSpace(mColorSpace);
+                checkRenderMode(mRenderMode);
+                checkBarCount(mBarCount);
+                checkKeyframeCount(mKeyframeCount);
+                checkSize(mWidth, mHeight);
+                checkPadding(mPaddingLR);
+                checkPadding(mPaddingTB);
+                checkBarHeight(mBarHeight);
+                if (mPaddingLR * 2 >= mWidth || mPaddingTB * 2 + mBarHeight * mBarCount > mHeight)
+                    throw new IllegalArgumentException("The bars do not fit in a " + mWidth + "x" + mHeight + " icon");
+
+                return new Config(this);
+            }
+        }
+    }
 
     /**
      * Allows an implementing Activity to return an {@link android.support.v4.app.ActionBarDrawerToggle.Delegate} to use
@@ -500,6 +1633,10 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
 
         Object setActionBarDescription (Object info, Activity activity, int contentDescRes);
 
+        /**
+         * @return the view showing the up indicator, or null if it is unknown
+         */
+        View getUpIndicatorView (Activity activity);
     }
 
     private static class ActionBarDrawerToggleImplBase implements ActionBarDrawerToggleImpl
@@ -524,6 +1661,12 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
             return info;
         }
 
+        @Override
+        public View getUpIndicatorView (Activity activity)
+        {
+            return null;
+        }
+
 
     }
 
@@ -549,6 +1692,12 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
             return ActionBarDrawerToggleHoneycomb.setActionBarDescription(info, activity, contentDescRes);
         }
 
+        @Override
+        public View getUpIndicatorView (Activity activity)
+        {
+            return ActionBarDrawerToggleHoneycomb.getUpIndicatorView(activity);
+        }
+
 
     }
 
@@ -574,14 +1723,26 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
             return ActionBarDrawerToggleJellybeanMR2.setActionBarDescription(info, activity, contentDescRes);
         }
 
+        @Override
+        public View getUpIndicatorView (Activity activity)
+        {
+            // The action bar layout did not change, the up indicator is still next to home
+            return ActionBarDrawerToggleHoneycomb.getUpIndicatorView(activity);
+        }
+
 
     }
 
     @TargetApi(Build.VERSION_CODES.HONEYCOMB)
     static class ActionBarDrawerToggleHoneycomb
     {
-        private static final String TAG         = "ActionBarDrawerToggleHoneycomb";
-        private static final int[]  THEME_ATTRS = new int[]{android.R.attr.homeAsUpIndicator};
+        private static final String TAG = "ActionBarDrawerToggleHoneycomb";
+
+        // Up indicator view of each Activity window, null if it could not be found
+        private static final Map<Window, WeakReference<ImageView>> sUpIndicatorViews = new WeakHashMap<Window, WeakReference<ImageView>>();
+
+        // Only warn once per process, the cause will not go away
+        private static boolean sUpIndicatorWarned, sInvokeWarned;
 
 
         public static Object setActionBarUpIndicator (Object info, Activity activity, Drawable drawable, int contentDescRes)
@@ -601,15 +1762,16 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
                 }
                 catch (Exception e)
                 {
-                    Log.w(TAG, "Couldn't set home-as-up indicator via JB-MR2 API", e);
+                    warnInvokeFailed("Couldn't set home-as-up indicator via JB-MR2 API", e);
                 }
             }
             else if (sii.upIndicatorView != null)
             {
                 sii.upIndicatorView.setImageDrawable(drawable);
             }
-            else
+            else if (!sUpIndicatorWarned)
             {
+                sUpIndicatorWarned = true;
                 Log.w(TAG, "Couldn't set home-as-up indicator");
             }
             return info;
@@ -637,7 +1799,7 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
                 }
                 catch (Exception e)
                 {
-                    Log.w(TAG, "Couldn't set content description via JB-MR2 API", e);
+                    warnInvokeFailed("Couldn't set content description via JB-MR2 API", e);
                 }
             }
             return info;
@@ -645,52 +1807,103 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
 
         public static Drawable getThemeUpIndicator (Activity activity)
         {
-            final TypedArray a = activity.obtainStyledAttributes(THEME_ATTRS);
-            final Drawable result = a.getDrawable(0);
-            a.recycle();
-            return result;
+            return ThemeUpIndicatorCache.get(activity);
         }
 
+        private static void warnInvokeFailed (String message, Exception e)
+        {
+            if (!sInvokeWarned)
+            {
+                sInvokeWarned = true;
+                Log.w(TAG, message, e);
+            }
+        }
 
-        private static class SetIndicatorInfo
+        private static ImageView getUpIndicatorView (Activity activity)
         {
-            public Method    setHomeAsUpIndicator;
-            public Method    setHomeActionContentDescription;
-            public ImageView upIndicatorView;
+            final Window window = activity.getWindow();
+            if (sUpIndicatorViews.containsKey(window))
+            {
+                final WeakReference<ImageView> reference = sUpIndicatorViews.get(window);
+                if (reference == null)
+                    return null;
+
+                // Look again only if the action bar views were replaced
+                final ImageView view = reference.get();
+                if (view != null)
+                    return view;
+            }
 
-            SetIndicatorInfo (Activity activity)
+            final ImageView view = findUpIndicatorView(activity);
+            sUpIndicatorViews.put(window, view != null ? new WeakReference<ImageView>(view) : null);
+            return view;
+        }
+
+        private static ImageView findUpIndicatorView (Activity activity)
+        {
+            final View home = activity.findViewById(android.R.id.home);
+            if (home == null)
+            {
+                // Action bar doesn't have a known configuration, an OEM messed with things.
+                return null;
+            }
+            final ViewGroup parent = (ViewGroup) home.getParent();
+            final int childCount = parent.getChildCount();
+            if (childCount != 2)
+            {
+                // No idea which one will be the right one, an OEM messed with things.
+                return null;
+            }
+            final View first = parent.getChildAt(0);
+            final View second = parent.getChildAt(1);
+            final View up = first.getId() == android.R.id.home ? second : first;
+            if (up instanceof ImageView)
+            {
+                // Jackpot! (Probably...)
+                return (ImageView) up;
+            }
+            return null;
+        }
+
+        /**
+         * The ActionBar methods, resolved once per process the first time they are needed.
+         */
+        private static class ActionBarMethods
+        {
+            static final Method setHomeAsUpIndicator;
+            static final Method setHomeActionContentDescription;
+
+            static
             {
+                Method upIndicator = null, contentDescription = null;
                 try
                 {
-                    setHomeAsUpIndicator = ActionBar.class.getDeclaredMethod("setHomeAsUpIndicator", Drawable.class);
-                    setHomeActionContentDescription = ActionBar.class.getDeclaredMethod("setHomeActionContentDescription", Integer.TYPE);
-                    // If we got the method we won't need the stuff below.
-                    return;
+                    upIndicator = ActionBar.class.getDeclaredMethod("setHomeAsUpIndicator", Drawable.class);
+                    contentDescription = ActionBar.class.getDeclaredMethod("setHomeActionContentDescription", Integer.TYPE);
                 }
                 catch (NoSuchMethodException e)
                 {
-                    // Oh well. We'll use the other mechanism below instead.
-                }
-                final View home = activity.findViewById(android.R.id.home);
-                if (home == null)
-                {
-                    // Action bar doesn't have a known configuration, an OEM messed with things.
-                    return;
+                    // Oh well. We'll use the other mechanism instead.
+                    upIndicator = null;
                 }
-                final ViewGroup parent = (ViewGroup) home.getParent();
-                final int childCount = parent.getChildCount();
-                if (childCount != 2)
-                {
-                    // No idea which one will be the right one, an OEM messed with things.
-                    return;
-                }
-                final View first = parent.getChildAt(0);
-                final View second = parent.getChildAt(1);
-                final View up = first.getId() == android.R.id.home ? second : first;
-                if (up instanceof ImageView)
+                setHomeAsUpIndicator = upIndicator;
+                setHomeActionContentDescription = upIndicator != null ? contentDescription : null;
+            }
+        }
+
+        private static class SetIndicatorInfo
+        {
+            public Method    setHomeAsUpIndicator;
+            public Method    setHomeActionContentDescription;
+            public ImageView upIndicatorView;
+
+            SetIndicatorInfo (Activity activity)
+            {
+                setHomeAsUpIndicator = ActionBarMethods.setHomeAsUpIndicator;
+                setHomeActionContentDescription = ActionBarMethods.setHomeActionContentDescription;
+                if (setHomeAsUpIndicator == null)
                 {
-                    // Jackpot! (Probably...)
-                    upIndicatorView = (ImageView) up;
+                    upIndicatorView = getUpIndicatorView(activity);
                 }
             }
         }
@@ -700,8 +1913,7 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
     @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
     static class ActionBarDrawerToggleJellybeanMR2
     {
-        private static final String TAG         = "ActionBarDrawerToggleImplJellybeanMR2";
-        private static final int[]  THEME_ATTRS = new int[]{android.R.attr.homeAsUpIndicator};
+        private static final String TAG = "ActionBarDrawerToggleImplJellybeanMR2";
 
         public static Object setActionBarUpIndicator (Object info, Activity activity, Drawable drawable, int contentDescRes)
         {
@@ -717,55 +1929,116 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
 
         public static Object setActionBarDescription (Object info, Activity activity, int contentDescRes)
         {
-            final ActionBar actionBar = activity.getActionBar();
-            if (actionBar != null)
+            final ActionBar actionBar = activity.getActionBar();
+            if (actionBar != null)
+            {
+                actionBar.setHomeActionContentDescription(contentDescRes);
+            }
+            return info;
+        }
+
+        public static Drawable getThemeUpIndicator (Activity activity)
+        {
+            return ThemeUpIndicatorCache.get(activity);
+        }
+    }
+
+    /**
+     * The animated glyph, usable as any drawable: as the expand/collapse indicator of list rows,
+     * in tabs, menus...
+     * <p/>
+     * <p>Drawables obtained with {@link #obtain(Resources, Config)} for the same configuration
+     * share everything but their position: geometry, keyframe tables, color ramp and atlas are
+     * computed once, so each row only costs a small drawable. They are copy-on-write: changing
+     * the configuration of one of them first gives it its own state, the others and the cache
+     * are left unchanged. Use {@link #setPositionNow(float)} to bind a row, and a
+     * {@link GlyphAnimationScheduler} to animate many of them.</p>
+     * <p/>
+     * <p>The glyph is laid out for the size of its configuration and scaled to bounds of another
+     * size, so drawables sharing a state never lay it out again.</p>
+     */
+    public static class TransformDrawable extends Drawable implements FrameClock.Callback, GlyphAnimator.FrameTarget
+    {
+        private GlyphState mState;
+        private boolean    mMutated;
+        private float      mPosition;
+        // Position of the last frame drawn, to know if a new position changes anything on screen
+        private float      mDrawnPosition = -1;
+        private boolean    mFrameScheduled, mForceInvalidate;
+        private int        mQuality       = QualityPolicy.QUALITY_FULL;
+        // Shares the state of this drawable, redrawn when the configuration changes
+        private TransformDrawable mLinkedGlyph;
+
+        /**
+         * A new drawable with its own state and the default configuration.
+         *
+         * @param resource resources giving the density of the default paddings and bar height
+         * @param width    width of the glyph, in pixel
+         * @param height   height of the glyph, in pixel
+         */
+        public TransformDrawable (Resources resource, int width, int height)
+        {
+            this(new GlyphState(resource, width, height));
+        }
+
+        /**
+         * A new drawable sharing its state with every drawable obtained for the same
+         * configuration, see {@link GlyphStateCache}.
+         *
+         * @param resource resources of the caller
+         * @param config   configuration of the glyph
+         * @return a new drawable, at position 0
+         */
+        public static TransformDrawable obtain (Resources resource, Config config)
+        {
+            if (config == null)
+                throw new IllegalArgumentException("config must not be null");
+
+            Drawable.ConstantState state = GlyphStateCache.get(config);
+            if (state == null)
             {
-                actionBar.setHomeActionContentDescription(contentDescRes);
+                // Built without a drawable, nothing is invalidated: rows can be bound off the main thread
+                final GlyphState glyphState = new GlyphState(resource, config.getWidth(), config.getHeight());
+                glyphState.setConfig(config);
+                glyphState.mCached = true;
+                GlyphStateCache.put(config, glyphState);
+                state = glyphState;
             }
-            return info;
+            return (TransformDrawable) state.newDrawable();
         }
 
-        public static Drawable getThemeUpIndicator (Activity activity)
+        private TransformDrawable (GlyphState state)
         {
-            final TypedArray a = activity.obtainStyledAttributes(THEME_ATTRS);
-            final Drawable result = a.getDrawable(0);
-            a.recycle();
-            return result;
+            mState = state;
         }
-    }
-
-    private class TransformDrawable extends InsetDrawable implements Drawable.Callback
-    {
-        private final Rect  mTmpRect     = new Rect();
-        private final RectF mTmpRectDraw = new RectF();
-        private float mPosition;
-        private int   mColorFrom, mColorTo;
-        private Paint mPaintIcon, mPaintCenterBar;
-        private boolean mRounded;
-        private int     mStyle, mPaddingLR, mPaddingTB, mBarHeight;
-        private float top, left, right, bottom;
 
-        private TransformDrawable (Resources resource, Drawable d)
+        /**
+         * @return a new drawable sharing the state of this one, even once this one is mutated, and
+         * redrawn with it when the configuration changes
+         */
+        TransformDrawable createLinkedGlyph ()
         {
-            super(d, 0);
-            mPaintIcon = new Paint();
-            mPaintCenterBar = new Paint();
-            mColorFrom = Color.WHITE;
-            mColorTo = mColorFrom;
-            mRounded = false;
-            mPaddingLR = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 8, resource.getDisplayMetrics());
-            mPaddingTB = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 10, resource.getDisplayMetrics());
-            mBarHeight = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 2, resource.getDisplayMetrics());
-            mStyle = STYLE_CROSS;
-
-            mPaintIcon.setAntiAlias(true);
-            mPaintIcon.setDither(true);
-            mPaintCenterBar.setAntiAlias(true);
-            mPaintCenterBar.setDither(true);
-
+            mLinkedGlyph = new TransformDrawable(mState);
+            return mLinkedGlyph;
+        }
 
+        /**
+         * The drawables obtained from the {@link GlyphStateCache} are copy-on-write: the first
+         * change of the configuration of one of them mutates it, so the other drawables and the
+         * cached state stay unchanged.
+         *
+         * @return the state, to change the configuration
+         */
+        private GlyphState getWritableState ()
+        {
+            if (!mMutated && mState.mCached)
+            {
+                mutate();
+            }
+            return mState;
         }
 
+        @Override
         public float getPosition ()
         {
             return mPosition;
@@ -776,261 +2049,707 @@ public class DrawerToggleHamburger implements DrawerLayout.DrawerListener
          *
          * @param position a value between 0 and 1
          */
+        @Override
         public void setPosition (float position)
         {
             mPosition = position;
-            invalidateSelf();
+            scheduleInvalidate(false);
+        }
+
+        /**
+         * Sets the position and invalidates right away if the change is visible, instead of on
+         * the next frame: to bind a list row, or from a frame callback.
+         *
+         * @param position a value between 0 and 1
+         */
+        @Override
+        public void setPositionNow (float position)
+        {
+            mPosition = position;
+            if (isPositionChangeVisible())
+            {
+                invalidateSelf();
+            }
+        }
+
+        /**
+         * @return true if the drawable is visible and attached to a view
+         */
+        @Override
+        public boolean isAnimationVisible ()
+        {
+            return isVisible() && getCallback() != null;
+        }
+
+        public void setSize (int width, int height)
+        {
+            Config.checkSize(width, height);
+
+            final GlyphState state = getWritableState();
+            state.setSize(width, height);
+            scheduleInvalidate(true);
+        }
+
+        public void setBarCount (int barCount)
+        {
+            Config.checkBarCount(barCount);
+
+            final GlyphState state = getWritableState();
+            state.mGeometry.setBarCount(barCount);
+            scheduleInvalidate(true);
         }
 
         public void setBarHeight (int barHeight)
         {
-            mBarHeight = barHeight;
-            invalidateSelf();
+            Config.checkBarHeight(barHeight);
+
+            final GlyphState state = getWritableState();
+            state.mGeometry.setBarHeight(barHeight);
+            scheduleInvalidate(true);
         }
 
         public void setClosedColor (int color)
         {
-            mColorFrom = color;
-            invalidateSelf();
+            final GlyphState state = getWritableState();
+            state.mColorFrom = color;
+            state.updateColorRamp();
+            scheduleInvalidate(true);
         }
 
 
         public void setOpenedColor (int color)
         {
-            mColorTo = color;
-            invalidateSelf();
+            final GlyphState state = getWritableState();
+            state.mColorTo = color;
+            state.updateColorRamp();
+            scheduleInvalidate(true);
+        }
+
+        public void setColorSpace (int colorSpace)
+        {
+            Config.checkColorSpace(colorSpace);
+
+            final GlyphState state = getWritableState();
+            state.mColorSpace = colorSpace;
+            state.updateColorRamp();
+            scheduleInvalidate(true);
         }
 
         public void setRounded (boolean rounded)
         {
-            mRounded = rounded;
-            invalidateSelf();
+            final GlyphState state = getWritableState();
+            state.mRounded = rounded;
+            state.mAtlas = null;
+            scheduleInvalidate(true);
         }
 
         public void setPaddingLR (int paddingLR)
         {
-            mPaddingLR = paddingLR;
-            invalidateSelf();
+            Config.checkPadding(paddingLR);
+
+            final GlyphState state = getWritableState();
+            state.mGeometry.setPaddingLR(paddingLR);
+            scheduleInvalidate(true);
         }
 
         public void setPaddingTB (int paddingTB)
         {
-            mPaddingTB = paddingTB;
-            invalidateSelf();
+            Config.checkPadding(paddingTB);
+
+            final GlyphState state = getWritableState();
+            state.mGeometry.setPaddingTB(paddingTB);
+            scheduleInvalidate(true);
         }
 
         public void setStyleShape (int style)
         {
-            mStyle = style;
-            invalidateSelf();
+            Config.checkStyle(style);
+
+            final GlyphState state = getWritableState();
+            state.mGeometry.setStyle(style);
+            scheduleInvalidate(true);
         }
 
-        @Override
-        public void draw (Canvas canvas)
+        /**
+         * Animate this drawable to another style. The progress of the morph is kept in the state,
+         * so the state is first {@link #mutate() forked}: the other drawables created from the
+         * same {@link ConstantState} keep their style instead of jumping to the middle of the morph.
+         *
+         * @param style      the new style
+         * @param durationMs duration of the animation, 0 to change the style at once
+         */
+        public void morphToStyle (int style, long durationMs)
         {
-            switch (mStyle)
+            Config.checkStyle(style);
+
+            if (durationMs <= 0 || mState.getFrameClock() == null)
             {
-                case STYLE_CROSS:
-                    drawCrossStyle(canvas);
-                    break;
-                case STYLE_CARET:
-                    drawCaretStyle(canvas);
-                    break;
-                case STYLE_ARROW:
-                    drawArrowStyle(canvas);
-                    break;
+                setStyleShape(style);
+                return;
             }
 
-
-            super.draw(canvas);
-            canvas.restore();
+            mutate();
+            mState.mGeometry.morphToStyle(style);
+            // Started by the next frame
+            mState.mMorphStartNanos = -1;
+            mState.mMorphDurationNanos = durationMs * 1000000L;
+            scheduleInvalidate(true);
         }
 
-        private void drawCrossStyle (Canvas canvas)
+        public void setKeyframeCount (int frameCount)
         {
-            copyBounds(mTmpRect);
-            canvas.save();
+            Config.checkKeyframeCount(frameCount);
 
-            mPaintIcon.setColor(transitionColor(mPosition, mColorFrom, mColorTo));
-            mPaintCenterBar.setColor(transitionColor(mPosition, mColorFrom, mColorTo));
+            final GlyphState state = getWritableState();
+            state.mFrameTable = frameCount == 0 ? null : new GlyphFrameTable(frameCount);
+            state.mFrameTableDirty = true;
+            state.mAtlas = null;
+            scheduleInvalidate(true);
+        }
 
-            final int width = mTmpRect.width();
-            final int height = mTmpRect.height();
+        public void setRenderMode (int renderMode)
+        {
+            Config.checkRenderMode(renderMode);
 
-            //space between bars
-            final int spaceBwBar = (height - mPaddingTB * 2 - mBarHeight * 3) / 2;
-            int currentY = mPaddingTB;
+            final GlyphState state = getWritableState();
+            state.mRenderMode = renderMode;
+            state.mAtlas = null;
+            scheduleInvalidate(true);
+        }
 
-            canvas.save();
-            canvas.translate(0, mPosition * ((height / 2) - (currentY + mBarHeight / 2)));
-            canvas.rotate(45 * mPosition, width / 2, (currentY + mBarHeight / 2));
-            mTmpRectDraw.set(mPaddingLR, currentY, width - mPaddingLR, currentY + mBarHeight);
+        public void setConfig (Config config)
+        {
+            getWritableState().setConfig(config);
+            scheduleInvalidate(true);
+        }
 
-            currentY += mBarHeight + spaceBwBar;
+        public Config getConfig ()
+        {
+            return mState.getConfig();
+        }
 
-            if (mRounded)
-                canvas.drawRoundRect(mTmpRectDraw, mBarHeight / 2, mBarHeight / 2, mPaintIcon);
-            else
-                canvas.drawRect(mTmpRectDraw, mPaintIcon);
+        public void setFrameClock (FrameClock frameClock)
+        {
+            final GlyphState state = getWritableState();
+            final FrameClock previous = state.getFrameClock();
+            if (mFrameScheduled && previous != null)
+            {
+                previous.removeFrameCallback(this);
+                mFrameScheduled = false;
+            }
+            state.setFrameClock(frameClock);
+            scheduleInvalidate(true);
+        }
 
-            canvas.restore();
+        public FrameClock getFrameClock ()
+        {
+            return mState.getFrameClock();
+        }
 
+        public int getQuality ()
+        {
+            return mQuality;
+        }
 
-            mPaintCenterBar.setAlpha(255 - (int) (255 * mPosition));
-            mTmpRectDraw.set(mPaddingLR, currentY, width - mPaddingLR, currentY + mBarHeight);
+        /**
+         * @param quality {@link QualityPolicy#QUALITY_FULL} or {@link QualityPolicy#QUALITY_MOTION}
+         */
+        public void setQuality (int quality)
+        {
+            if (quality != mQuality)
+            {
+                mQuality = quality;
+                scheduleInvalidate(true);
+            }
+        }
 
-            currentY += mBarHeight + spaceBwBar;
+        public void setInvalidationThreshold (float pixels, int colorLevels)
+        {
+            final GlyphState state = getWritableState();
+            state.mPixelThreshold = pixels;
+            state.mColorThreshold = colorLevels;
+        }
 
-            if (mRounded)
-                canvas.drawRoundRect(mTmpRectDraw, mBarHeight / 2, mBarHeight / 2, mPaintCenterBar);
-            else
-                canvas.drawRect(mTmpRectDraw, mPaintCenterBar);
+        public void setKeyframeInterpolation (boolean interpolate)
+        {
+            final GlyphState state = getWritableState();
+            state.mInterpolateFrames = interpolate;
+            scheduleInvalidate(true);
+        }
 
+        /**
+         * Invalidate on the next frame of the frame clock, or right now if there is none. Several
+         * requests during the same frame only invalidate once.
+         *
+         * @param force true if the configuration changed, false if only the position changed, in
+         *              which case nothing is invalidated when the change is not visible
+         */
+        private void scheduleInvalidate (boolean force)
+        {
+            mForceInvalidate |= force;
 
-            canvas.save();
-            canvas.translate(0, mPosition * ((height / 2) - (currentY + mBarHeight / 2)));
-            canvas.rotate(-45 * mPosition, width / 2, (currentY + mBarHeight / 2));
+            final FrameClock frameClock = mState.getFrameClock();
+            if (frameClock == null)
+            {
+                doFrame(0);
+            }
+            else if (!mFrameScheduled)
+            {
+                mFrameScheduled = true;
+                frameClock.postFrameCallback(this);
+            }
+        }
 
+        @Override
+        public void doFrame (long frameTimeNanos)
+        {
+            mFrameScheduled = false;
+            if (mState.mGeometry.isMorphing())
+            {
+                stepMorph(frameTimeNanos);
+            }
+            if (mForceInvalidate || isPositionChangeVisible())
+            {
+                if (mForceInvalidate && mLinkedGlyph != null)
+                {
+                    mLinkedGlyph.invalidateSelf();
+                }
+                mForceInvalidate = false;
+                invalidateSelf();
+            }
+        }
 
-            mTmpRectDraw.set(mPaddingLR, currentY, width - mPaddingLR, currentY + mBarHeight);
-            if (mRounded)
-                canvas.drawRoundRect(mTmpRectDraw, mBarHeight / 2, mBarHeight / 2, mPaintIcon);
+        private void stepMorph (long frameTimeNanos)
+        {
+            final GlyphState state = mState;
+            final FrameClock frameClock = state.getFrameClock();
+            if (frameClock == null)
+            {
+                // No more frames to animate on
+                state.mGeometry.setMorphFraction(1);
+            }
             else
-                canvas.drawRect(mTmpRectDraw, mPaintIcon);
+            {
+                if (state.mMorphStartNanos < 0)
+                {
+                    state.mMorphStartNanos = frameTimeNanos;
+                }
+                state.mGeometry.setMorphFraction((float) (frameTimeNanos - state.mMorphStartNanos) / state.mMorphDurationNanos);
+            }
+            mForceInvalidate = true;
 
-            canvas.restore();
+            if (state.mGeometry.isMorphing())
+            {
+                mFrameScheduled = true;
+                frameClock.postFrameCallback(this);
+            }
         }
 
-
-        private void drawArrowStyle (Canvas canvas)
+        private boolean isPositionChangeVisible ()
         {
-            copyBounds(mTmpRect);
-            canvas.save();
+            if (mPosition == mDrawnPosition)
+                return false;
 
-            mPaintIcon.setColor(transitionColor(mPosition, mColorFrom, mColorTo));
-            mPaintCenterBar.setColor(transitionColor(mPosition, mColorFrom, mColorTo));
+            // Always reach the closed and opened states exactly
+            if (mPosition <= 0 || mPosition >= 1 || mDrawnPosition < 0)
+                return true;
 
-            final int width = mTmpRect.width();
-            final int height = mTmpRect.height();
-            final int barWidth = width - mPaddingLR * 2;
+            final GlyphState state = mState;
+            final float delta = Math.abs(mPosition - mDrawnPosition);
+            return delta * state.mGeometry.getMaxDisplacement() >= state.mPixelThreshold || delta * state.mColorRamp.getMaxDelta() >= state.mColorThreshold;
+        }
 
+        @Override
+        public int getIntrinsicWidth ()
+        {
+            return mState.mWidth;
+        }
 
-            //space between bars
-            final int spaceBwBar = (height - mPaddingTB * 2 - mBarHeight * 3) / 2;
-            int currentY = mPaddingTB;
+        @Override
+        public int getIntrinsicHeight ()
+        {
+            return mState.mHeight;
+        }
 
-            left = mPaddingLR;
-            top = currentY + ((mBarHeight + spaceBwBar) * mPosition);
-            right = width - mPaddingLR - ((barWidth / 2) * mPosition);
-            bottom = top + mBarHeight;
+        @Override
+        public void setAlpha (int alpha)
+        {
+            if (alpha != mState.mAlpha)
+            {
+                getWritableState().mAlpha = alpha;
+                invalidateSelf();
+            }
+        }
 
-            //TOP BAR
-            canvas.save();
-            canvas.rotate(-35 * mPosition, left, top);
-            mTmpRectDraw.set(left, top, right, bottom);
-            currentY += mBarHeight + spaceBwBar;
-            if (mRounded)
-                canvas.drawRoundRect(mTmpRectDraw, mBarHeight / 2, mBarHeight / 2, mPaintIcon);
-            else
-                canvas.drawRect(mTmpRectDraw, mPaintIcon);
-            canvas.restore();
+        @Override
+        public int getAlpha ()
+        {
+            return mState.mAlpha;
+        }
 
+        @Override
+        public void setColorFilter (ColorFilter cf)
+        {
+            final GlyphState state = getWritableState();
+            state.mPaintIcon.setColorFilter(cf);
+            state.mPaintAtlas.setColorFilter(cf);
+            invalidateSelf();
+        }
 
-            //MIDDLE BAR
-            mTmpRectDraw.set(mPaddingLR, currentY, width - mPaddingLR, currentY + mBarHeight);
-            currentY += mBarHeight + spaceBwBar;
+        @Override
+        public int getOpacity ()
+        {
+            return PixelFormat.TRANSLUCENT;
+        }
 
-            if (mRounded)
-                canvas.drawRoundRect(mTmpRectDraw, mBarHeight / 2, mBarHeight / 2, mPaintCenterBar);
-            else
-                canvas.drawRect(mTmpRectDraw, mPaintCenterBar);
+        @Override
+        public int getChangingConfigurations ()
+        {
+            return super.getChangingConfigurations() | mState.mChangingConfigurations;
+        }
+
+        @Override
+        public ConstantState getConstantState ()
+        {
+            mState.mChangingConfigurations = getChangingConfigurations();
+            return mState;
+        }
 
+        /**
+         * Make this drawable mutable: once called, changing the configuration of this drawable
+         * no longer affects the other drawables created from the same {@link ConstantState}.
+         */
+        @Override
+        public Drawable mutate ()
+        {
+            if (!mMutated && super.mutate() == this)
+            {
+                mState = new GlyphState(mState);
+                mMutated = true;
+                if (mLinkedGlyph != null)
+                {
+                    mLinkedGlyph.mState = mState;
+                }
+            }
+            return this;
+        }
 
-            //BOTTOM BAR
-            top = currentY - ((spaceBwBar + mBarHeight) * mPosition);
-            bottom = top + mBarHeight;
+        @Override
+        public void draw (Canvas canvas)
+        {
+            final Rect bounds = getBounds();
+            final GlyphState state = mState;
+            if (bounds.isEmpty() || state.mWidth <= 0 || state.mHeight <= 0)
+                return;
+
+            mDrawnPosition = mPosition;
+            // The tables and the atlas only hold the target style, a morph is computed every frame
+            final boolean morphing = state.mGeometry.isMorphing();
+            if (state.mRenderMode == RENDER_MODE_ATLAS && !morphing && drawAtlas(canvas, bounds))
+                return;
+
+            final boolean motion = mQuality == QualityPolicy.QUALITY_MOTION;
+            final GlyphFrameTable frameTable = morphing ? null : state.getFrameTable(motion);
+            final int color;
+            if (frameTable != null)
+            {
+                color = frameTable.lookup(mPosition, state.mInterpolateFrames && !motion, state.mBars);
+            }
+            else
+            {
+                state.mGeometry.compute(mPosition, state.mBars);
+                color = state.mColorRamp.get(mPosition);
+            }
 
-            canvas.save();
-            canvas.rotate(35 * mPosition, left, bottom);
-            mTmpRectDraw.set(left, top, right, bottom);
+            state.mPaintIcon.setDither(!motion);
+            // The geometry is shared with the other drawables of the same state, so it is laid out
+            // once at the origin and the size of the state, then moved and scaled to the bounds
+            final boolean translate = bounds.left != 0 || bounds.top != 0;
+            final boolean scale = bounds.width() != state.mWidth || bounds.height() != state.mHeight;
+            if (translate || scale)
+            {
+                canvas.save();
+                canvas.translate(bounds.left, bounds.top);
+                if (scale)
+                {
+                    canvas.scale((float) bounds.width() / state.mWidth, (float) bounds.height() / state.mHeight);
+                }
+            }
 
-            if (mRounded)
-                canvas.drawRoundRect(mTmpRectDraw, mBarHeight / 2, mBarHeight / 2, mPaintIcon);
+            if (state.mRenderMode == RENDER_MODE_LINES)
+                GlyphRenderer.drawLines(canvas, state.mBars, state.mGeometry.getBarCount(), state.mGeometry.getBarHeight(), state.mRounded, applyAlpha(color), state.mPaintIcon, state.mLines);
             else
-                canvas.drawRect(mTmpRectDraw, mPaintIcon);
+                GlyphRenderer.drawBars(canvas, state.mBars, state.mGeometry.getBarCount(), state.mGeometry.getBarHeight(), state.mRounded, applyAlpha(color), state.mPaintIcon, state.mTmpRectDraw);
 
-            canvas.restore();
+            if (translate || scale)
+                canvas.restore();
         }
 
-        private void drawCaretStyle (Canvas canvas)
+        /**
+         * @return false if no atlas fits in the {@link GlyphAtlasCache}, the glyph must then be
+         * drawn on the canvas
+         */
+        private boolean drawAtlas (Canvas canvas, Rect bounds)
         {
-            copyBounds(mTmpRect);
-            canvas.save();
+            final GlyphState state = mState;
+            if (state.mAtlas == null || state.mAtlasGeneration != state.mGeometry.getGeneration())
+            {
+                final int requested = state.mFrameTable != null ? state.mFrameTable.getFrameCount() : GlyphState.DEFAULT_ATLAS_FRAME_COUNT;
+                final int frameCount = GlyphAtlasCache.fitFrameCount(state.mWidth, state.mHeight, requested);
+                if (frameCount == 0)
+                    return false;
+
+                state.mAtlas = GlyphAtlasCache.get(new GlyphAtlas.Key(state.mGeometry.getStyle(), state.mGeometry.getBarCount(), state.mWidth, state.mHeight, state.mGeometry.getPaddingLR(), state.mGeometry.getPaddingTB(), state.mGeometry.getBarHeight(), state.mRounded, frameCount));
+                state.mAtlasGeneration = state.mGeometry.getGeneration();
+            }
 
-            mPaintIcon.setColor(transitionColor(mPosition, mColorFrom, mColorTo));
-            mPaintCenterBar.setColor(transitionColor(mPosition, mColorFrom, mColorTo));
+            state.mAtlas.getFrameRect(state.mAtlas.getFrameIndex(mPosition), state.mTmpRect);
+            state.mPaintAtlas.setColor(applyAlpha(state.mColorRamp.get(mPosition)));
+            canvas.drawBitmap(state.mAtlas.getBitmap(), state.mTmpRect, bounds, state.mPaintAtlas);
+            return true;
+        }
 
+        private int applyAlpha (int color)
+        {
+            if (mState.mAlpha == 255)
+                return color;
 
-            final int width = mTmpRect.width();
-            final int height = mTmpRect.height();
-            final int barWidth = width - mPaddingLR * 2;
+            return (color & 0x00FFFFFF) | ((Color.alpha(color) * mState.mAlpha / 255) << 24);
+        }
+    }
 
+    /**
+     * Everything a {@link TransformDrawable} needs except its position: configuration, paints and
+     * the tables derived from them. Drawables created from the same state share it until
+     * {@link TransformDrawable#mutate()} is called, so they only cost their position.
+     * <p/>
+     * The paints, the temporary rectangles and the bar buffer are only used while drawing, which
+     * always happens on the main thread.
+     */
+    private static final class GlyphState extends Drawable.ConstantState
+    {
+        // Number of frames of the atlas when no keyframe count is set
+        private static final int   DEFAULT_ATLAS_FRAME_COUNT = 64;
+        // Number of frames of the table used in motion quality when no keyframe count is set
+        private static final int   MOTION_FRAME_COUNT        = 64;
+        // Smallest visible change of the glyph, in pixels and in levels of a color channel
+        private static final float DEFAULT_PIXEL_THRESHOLD   = 0.25f;
+        private static final int   DEFAULT_COLOR_THRESHOLD   = 1;
+
+        private final Rect          mTmpRect     = new Rect();
+        private final RectF         mTmpRectDraw = new RectF();
+        private final float[]       mBars        = new float[GlyphGeometry.BUFFER_SIZE];
+        private final float[]       mLines       = new float[GlyphRenderer.LINES_BUFFER_SIZE];
+        private final GlyphGeometry mGeometry;
+        private final Paint         mPaintIcon;
+        private final Paint         mPaintAtlas;
+        private final ColorRamp     mColorRamp   = new ColorRamp();
+        private int     mColorFrom, mColorTo, mColorSpace;
+        private boolean mRounded;
+        private int     mWidth, mHeight;
+        private int     mAlpha = 255;
+        private int     mRenderMode;
+        private int     mChangingConfigurations;
+        private GlyphFrameTable mFrameTable;
+        private boolean         mFrameTableDirty, mInterpolateFrames;
+        private int             mFrameTableGeneration;
+        // Created the first time the glyph moves in motion quality without a keyframe table
+        private GlyphFrameTable mMotionTable;
+        private boolean         mMotionTableDirty;
+        private int             mMotionTableGeneration;
+        private GlyphAtlas mAtlas;
+        private int        mAtlasGeneration;
+        private long       mMorphStartNanos, mMorphDurationNanos;
+        private FrameClock mFrameClock;
+        private boolean    mDefaultFrameClock = true;
+        private float      mPixelThreshold = DEFAULT_PIXEL_THRESHOLD;
+        private int        mColorThreshold = DEFAULT_COLOR_THRESHOLD;
+        // Shared through the GlyphStateCache, never changed: a copy is not
+        private boolean    mCached;
+
+        private GlyphState (Resources resource, int width, int height)
+        {
+            mWidth = width;
+            mHeight = height;
+            mColorFrom = Color.WHITE;
+            mColorTo = mColorFrom;
+            mColorSpace = ColorRamp.SPACE_SRGB;
+            mColorRamp.set(mColorFrom, mColorTo, mColorSpace);
+            mRounded = false;
+            mGeometry = new GlyphGeometry();
+            mGeometry.setPaddingLR((int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 8, resource.getDisplayMetrics()));
+            mGeometry.setPaddingTB((int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 10, resource.getDisplayMetrics()));
+            mGeometry.setBarHeight((int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 2, resource.getDisplayMetrics()));
+            mGeometry.setStyle(STYLE_CROSS);
+            mGeometry.setBounds(0, 0, width, height);
 
-            //space between bars
-            final int spaceBwBar = (height - mPaddingTB * 2 - mBarHeight * 3) / 2;
-            int currentY = mPaddingTB;
+            mPaintIcon = new Paint();
+            mPaintIcon.setAntiAlias(true);
+            mPaintIcon.setDither(true);
+            mPaintAtlas = new Paint(Paint.FILTER_BITMAP_FLAG);
+        }
 
-            left = mPaddingLR;
-            top = currentY + ((mBarHeight + spaceBwBar) * mPosition);
-            right = width - mPaddingLR - ((barWidth / 2) * mPosition);
-            bottom = top + mBarHeight;
+        private GlyphState (GlyphState source)
+        {
+            mWidth = source.mWidth;
+            mHeight = source.mHeight;
+            mColorFrom = source.mColorFrom;
+            mColorTo = source.mColorTo;
+            mColorSpace = source.mColorSpace;
+            mColorRamp.set(mColorFrom, mColorTo, mColorSpace);
+            mRounded = source.mRounded;
+            mAlpha = source.mAlpha;
+            mRenderMode = source.mRenderMode;
+            mChangingConfigurations = source.mChangingConfigurations;
+            mGeometry = new GlyphGeometry(source.mGeometry);
+            mPaintIcon = new Paint(source.mPaintIcon);
+            mPaintAtlas = new Paint(source.mPaintAtlas);
+            mInterpolateFrames = source.mInterpolateFrames;
+            mFrameClock = source.mFrameClock;
+            mDefaultFrameClock = source.mDefaultFrameClock;
+            mPixelThreshold = source.mPixelThreshold;
+            mColorThreshold = source.mColorThreshold;
+            if (source.mFrameTable != null)
+            {
+                mFrameTable = new GlyphFrameTable(source.mFrameTable.getFrameCount());
+                mFrameTableDirty = true;
+            }
+            // Atlases are immutable, a valid one can be kept until the configuration changes
+            if (source.mAtlas != null && source.mAtlasGeneration == source.mGeometry.getGeneration())
+            {
+                mAtlas = source.mAtlas;
+                mAtlasGeneration = mGeometry.getGeneration();
+            }
+        }
 
-            canvas.save();
-            canvas.rotate(-40 * mPosition, left, top);
-            mTmpRectDraw.set(left, top, right, bottom);
-            currentY += mBarHeight + spaceBwBar;
-            if (mRounded)
-                canvas.drawRoundRect(mTmpRectDraw, mBarHeight / 2, mBarHeight / 2, mPaintIcon);
-            else
-                canvas.drawRect(mTmpRectDraw, mPaintIcon);
-            canvas.restore();
+        private Config getConfig ()
+        {
+            final Config.Builder builder = new Config.Builder();
+            builder.setSize(mWidth, mHeight)
+                   .setStyleShape(mGeometry.getStyle())
+                   .setClosedColor(mColorFrom)
+                   .setOpenedColor(mColorTo)
+                   .setColorSpace(mColorSpace)
+                   .setBarCount(mGeometry.getBarCount())
+                   .setPaddingLR(mGeometry.getPaddingLR())
+                   .setPaddingTB(mGeometry.getPaddingTB())
+                   .setBarHeight(mGeometry.getBarHeight())
+                   .setRounded(mRounded)
+                   .setRenderMode(mRenderMode)
+                   .setKeyframeCount(mFrameTable != null ? mFrameTable.getFrameCount() : 0)
+                   .setKeyframeInterpolation(mInterpolateFrames);
+            // Every value was checked by the setters of the drawables, but not whether the bars
+            // fit: the configuration may be changed one setter at a time, through sizes where
+            // they do not
+            return new Config(builder);
+        }
 
+        private void setConfig (Config config)
+        {
+            setSize(config.mWidth, config.mHeight);
+            mGeometry.setStyle(config.mStyle);
+            mGeometry.setBarCount(config.mBarCount);
+            mGeometry.setPaddingLR(config.mPaddingLR);
+            mGeometry.setPaddingTB(config.mPaddingTB);
+            mGeometry.setBarHeight(config.mBarHeight);
+            // Rebuilding the ramp dirties the frame and motion tables, only when the colors change
+            if (config.mClosedColor != mColorFrom || config.mOpenedColor != mColorTo || config.mColorSpace != mColorSpace)
+            {
+                mColorFrom = config.mClosedColor;
+                mColorTo = config.mOpenedColor;
+                mColorSpace = config.mColorSpace;
+                updateColorRamp();
+            }
+            mInterpolateFrames = config.mKeyframeInterpolation;
 
-            top = currentY;
-            bottom = top + mBarHeight;
-            mPaintCenterBar.setAlpha(255 - (int) (255 * mPosition));
-            mTmpRectDraw.set(left, top, right, bottom);
-            currentY += mBarHeight + spaceBwBar;
-            if (mRounded)
-                canvas.drawRoundRect(mTmpRectDraw, mBarHeight / 2, mBarHeight / 2, mPaintCenterBar);
-            else
-                canvas.drawRect(mTmpRectDraw, mPaintCenterBar);
+            final int frameCount = mFrameTable != null ? mFrameTable.getFrameCount() : 0;
+            if (config.mRounded != mRounded || config.mRenderMode != mRenderMode || config.mKeyframeCount != frameCount)
+            {
+                mAtlas = null;
+            }
+            if (config.mKeyframeCount != frameCount)
+            {
+                mFrameTable = config.mKeyframeCount == 0 ? null : new GlyphFrameTable(config.mKeyframeCount);
+                mFrameTableDirty = true;
+            }
+            mRounded = config.mRounded;
+            mRenderMode = config.mRenderMode;
+        }
 
+        /**
+         * @return the clock set by {@link TransformDrawable#setFrameClock(FrameClock)}, or the
+         * clock of the main thread, only resolved here so a state can be created on any thread
+         */
+        private FrameClock getFrameClock ()
+        {
+            return mDefaultFrameClock ? ChoreographerFrameClock.getInstance() : mFrameClock;
+        }
 
-            //BOTTOM BAR
-            top = currentY - ((spaceBwBar + mBarHeight + mBarHeight / 2) * mPosition);
-            bottom = top + mBarHeight;
+        private void setFrameClock (FrameClock frameClock)
+        {
+            mFrameClock = frameClock;
+            mDefaultFrameClock = false;
+        }
 
-            canvas.save();
-            canvas.rotate(40 * mPosition, left, bottom);
-            mTmpRectDraw.set(left, top, right, bottom);
+        private void setSize (int width, int height)
+        {
+            mWidth = width;
+            mHeight = height;
+            mGeometry.setBounds(0, 0, width, height);
+        }
 
-            if (mRounded)
-                canvas.drawRoundRect(mTmpRectDraw, mBarHeight / 2, mBarHeight / 2, mPaintIcon);
-            else
-                canvas.drawRect(mTmpRectDraw, mPaintIcon);
+        private void updateColorRamp ()
+        {
+            mColorRamp.set(mColorFrom, mColorTo, mColorSpace);
+            mFrameTableDirty = true;
+            mMotionTableDirty = true;
+        }
 
-            canvas.restore();
+        /**
+         * @param motion true in motion quality, a table is then always returned
+         * @return the table of the glyph built for the current configuration, or null if the
+         * glyph must be computed
+         */
+        private GlyphFrameTable getFrameTable (boolean motion)
+        {
+            final int generation = mGeometry.getGeneration();
+            if (mFrameTable != null)
+            {
+                if (mFrameTableDirty || mFrameTableGeneration != generation)
+                {
+                    mFrameTable.rebuild(mGeometry, mColorRamp);
+                    mFrameTableGeneration = generation;
+                    mFrameTableDirty = false;
+                }
+                return mFrameTable;
+            }
+            if (!motion)
+                return null;
+
+            if (mMotionTable == null)
+            {
+                mMotionTable = new GlyphFrameTable(MOTION_FRAME_COUNT);
+                mMotionTableDirty = true;
+            }
+            if (mMotionTableDirty || mMotionTableGeneration != generation)
+            {
+                mMotionTable.rebuild(mGeometry, mColorRamp);
+                mMotionTableGeneration = generation;
+                mMotionTableDirty = false;
+            }
+            return mMotionTable;
+        }
 
+        @Override
+        public Drawable newDrawable ()
+        {
+            return new TransformDrawable(this);
         }
 
-        private int transitionColor (float value, int from, int to)
+        @Override
+        public int getChangingConfigurations ()
         {
-            int alpha = (int) Math.abs((value * Color.alpha(to)) + ((1 - value) * Color.alpha(from)));
-            int red = (int) Math.abs((value * Color.red(to)) + ((1 - value) * Color.red(from)));
-            int green = (int) Math.abs((value * Color.green(to)) + ((1 - value) * Color.green(from)));
-            int blue = (int) Math.abs((value * Color.blue(to)) + ((1 - value) * Color.blue(from)));
-            return Color.argb(alpha, red, green, blue);
+            return mChangingConfigurations;
         }
     }
 }
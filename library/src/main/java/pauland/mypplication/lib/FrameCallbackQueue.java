@@ -0,0 +1,76 @@
+package pauland.mypplication.lib;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * Callbacks waiting for the next frame of a {@link FrameClock}, with the semantics of
+ * {@link FrameClock#postFrameCallback(FrameClock.Callback)}: a callback runs once per frame
+ * however many times it is posted, and the callbacks posted while a frame is dispatched run on
+ * the next one (no <code>android.*</code> dependency).
+ * <p/>
+ * Posting and removing a callback take constant time, whatever the number of callbacks.
+ */
+final class FrameCallbackQueue
+{
+    // Callbacks of the next frame and of the frame being dispatched, in posting order. A removed
+    // callback stays in its list but leaves its set, and is skipped when the frame runs.
+    private ArrayList<FrameClock.Callback>                mCallbacks = new ArrayList<FrameClock.Callback>();
+    private IdentityHashMap<FrameClock.Callback, Boolean> mPosted    = new IdentityHashMap<FrameClock.Callback, Boolean>();
+    private ArrayList<FrameClock.Callback>                mRunning   = new ArrayList<FrameClock.Callback>();
+    private IdentityHashMap<FrameClock.Callback, Boolean> mNotRunYet = new IdentityHashMap<FrameClock.Callback, Boolean>();
+
+    /**
+     * @return false if the callback was already waiting, for the next frame or later in the frame
+     * being dispatched
+     */
+    boolean post (FrameClock.Callback callback)
+    {
+        if (mNotRunYet.containsKey(callback) || mPosted.put(callback, Boolean.TRUE) != null)
+            return false;
+
+        mCallbacks.add(callback);
+        return true;
+    }
+
+    void remove (FrameClock.Callback callback)
+    {
+        mPosted.remove(callback);
+        // Also cancel it if the current frame did not run it yet
+        mNotRunYet.remove(callback);
+    }
+
+    /**
+     * @return number of callbacks waiting for the next frame
+     */
+    int size ()
+    {
+        return mPosted.size();
+    }
+
+    /**
+     * Run the callbacks posted before this call, in posting order.
+     */
+    void dispatch (long frameTimeNanos)
+    {
+        // Callbacks posted while dispatching run on the next frame: swap the lists and the sets
+        final ArrayList<FrameClock.Callback> running = mCallbacks;
+        final IdentityHashMap<FrameClock.Callback, Boolean> notRunYet = mPosted;
+        mCallbacks = mRunning;
+        mPosted = mNotRunYet;
+        mRunning = running;
+        mNotRunYet = notRunYet;
+
+        for (int i = 0, size = running.size(); i < size; i++)
+        {
+            final FrameClock.Callback callback = running.get(i);
+            // Skips the callbacks removed, and the second entry of a callback removed then posted again
+            if (notRunYet.remove(callback) != null)
+            {
+                callback.doFrame(frameTimeNanos);
+            }
+        }
+        running.clear();
+        notRunYet.clear();
+    }
+}
@@ -0,0 +1,31 @@
+package pauland.mypplication.lib;
+
+/**
+ * Source of display frames.
+ * <p/>
+ * On a device use {@link ChoreographerFrameClock#getInstance()}; a fake implementation can drive
+ * the animations of the glyph from a plain JVM.
+ */
+public interface FrameClock
+{
+    /**
+     * Run the callback once, on the next frame. Posting a callback already waiting for the next
+     * frame does nothing.
+     */
+    void postFrameCallback (Callback callback);
+
+    /**
+     * Cancel a callback waiting for the next frame.
+     */
+    void removeFrameCallback (Callback callback);
+
+    interface Callback
+    {
+        /**
+         * Called when a new frame starts.
+         *
+         * @param frameTimeNanos time the frame started, in the {@link System#nanoTime()} time base
+         */
+        void doFrame (long frameTimeNanos);
+    }
+}
@@ -0,0 +1,262 @@
+package pauland.mypplication.lib;
+
+import java.util.IdentityHashMap;
+
+/**
+ * Animates the position of any number of glyphs from a single frame callback, for screens showing
+ * many glyphs at once (list rows, tabs...).
+ * <p/>
+ * <p>Every frame, the positions of all the running animations are updated in one pass, and the
+ * {@link GlyphAnimator.FrameTarget}s, such as the drawables of this library, are redrawn right
+ * away instead of each posting its own frame callback. Frame targets that are hidden or detached
+ * are not updated until their animation ends. The scheduler stops listening to the frame clock
+ * when nothing is animating, and allocates nothing per frame (no <code>android.*</code>
+ * dependency). Finding the animation of a glyph takes constant time, whatever the number of
+ * running animations.</p>
+ * <p/>
+ * <p>Must be used from the thread of the frame clock.</p>
+ */
+public final class GlyphAnimationScheduler implements FrameClock.Callback
+{
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final FrameClock    mFrameClock;
+    private GlyphProgressMapper mEasing = GlyphProgressMapper.EASE_IN_OUT;
+    private boolean             mFrameScheduled;
+
+    // Running animations, struct of arrays compacted as animations end
+    private int                         mCount;
+    private GlyphAnimator.Target[]      mGlyphs        = new GlyphAnimator.Target[INITIAL_CAPACITY];
+    // The glyph as a frame target, null if it is not one
+    private GlyphAnimator.FrameTarget[] mFrameTargets  = new GlyphAnimator.FrameTarget[INITIAL_CAPACITY];
+    private float[]                     mFrom          = new float[INITIAL_CAPACITY];
+    private float[]                     mTo            = new float[INITIAL_CAPACITY];
+    private long[]                      mStartNanos    = new long[INITIAL_CAPACITY];
+    private long[]                      mDurationNanos = new long[INITIAL_CAPACITY];
+    // Index of each animation, updated when it is moved. The slots past mCount are spares reused
+    // by the next animations, so a frame ending animations allocates nothing.
+    private Slot[]                      mSlots         = new Slot[INITIAL_CAPACITY];
+    private final IdentityHashMap<GlyphAnimator.Target, Slot> mIndices = new IdentityHashMap<GlyphAnimator.Target, Slot>();
+
+    /**
+     * @param frameClock clock driving the animations, usually {@link ChoreographerFrameClock#getInstance()}
+     */
+    public GlyphAnimationScheduler (FrameClock frameClock)
+    {
+        if (frameClock == null)
+            throw new IllegalArgumentException("frameClock must not be null");
+
+        mFrameClock = frameClock;
+    }
+
+    /**
+     * @param easing curve of the animations, {@link GlyphProgressMapper#EASE_IN_OUT} by default
+     */
+    public void setEasing (GlyphProgressMapper easing)
+    {
+        if (easing == null)
+            throw new IllegalArgumentException("easing must not be null");
+
+        mEasing = easing;
+    }
+
+    /**
+     * @return the number of running animations
+     */
+    public int getAnimationCount ()
+    {
+        return mCount;
+    }
+
+    public boolean isAnimating (GlyphAnimator.Target glyph)
+    {
+        return indexOf(glyph) >= 0;
+    }
+
+    /**
+     * Animate a glyph from its current position, replacing its running animation if any.
+     *
+     * @param glyph      the glyph
+     * @param position   a value between 0 and 1
+     * @param durationMs duration of an animation from 0 to 1, shorter moves are faster
+     */
+    public void animateTo (GlyphAnimator.Target glyph, float position, long durationMs)
+    {
+        if (glyph == null)
+            throw new IllegalArgumentException("glyph must not be null");
+
+        final float from = glyph.getPosition();
+        int index = indexOf(glyph);
+        if (from == position || durationMs <= 0)
+        {
+            if (index >= 0)
+            {
+                remove(index);
+            }
+            glyph.setPosition(position);
+            return;
+        }
+
+        if (index < 0)
+        {
+            index = add(glyph);
+        }
+        mFrom[index] = from;
+        mTo[index] = position;
+        // Started by the next frame
+        mStartNanos[index] = -1;
+        mDurationNanos[index] = (long) (durationMs * 1000000L * Math.abs(position - from));
+
+        if (!mFrameScheduled)
+        {
+            mFrameScheduled = true;
+            mFrameClock.postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Stop the animation of a glyph, leaving it where it is.
+     */
+    public void cancel (GlyphAnimator.Target glyph)
+    {
+        final int index = indexOf(glyph);
+        if (index >= 0)
+        {
+            remove(index);
+        }
+        if (mCount == 0 && mFrameScheduled)
+        {
+            mFrameScheduled = false;
+            mFrameClock.removeFrameCallback(this);
+        }
+    }
+
+    private int indexOf (GlyphAnimator.Target glyph)
+    {
+        final Slot slot = mIndices.get(glyph);
+        return slot != null ? slot.mIndex : -1;
+    }
+
+    private int add (GlyphAnimator.Target glyph)
+    {
+        if (mCount == mGlyphs.length)
+        {
+            grow();
+        }
+        final int index = mCount++;
+        mGlyphs[index] = glyph;
+        mFrameTargets[index] = glyph instanceof GlyphAnimator.FrameTarget ? (GlyphAnimator.FrameTarget) glyph : null;
+        Slot slot = mSlots[index];
+        if (slot == null)
+        {
+            slot = new Slot();
+            mSlots[index] = slot;
+        }
+        slot.mIndex = index;
+        mIndices.put(glyph, slot);
+        return index;
+    }
+
+    private void grow ()
+    {
+        final int capacity = mGlyphs.length * 2;
+
+        final GlyphAnimator.Target[] glyphs = new GlyphAnimator.Target[capacity];
+        System.arraycopy(mGlyphs, 0, glyphs, 0, mCount);
+        mGlyphs = glyphs;
+        final GlyphAnimator.FrameTarget[] frameTargets = new GlyphAnimator.FrameTarget[capacity];
+        System.arraycopy(mFrameTargets, 0, frameTargets, 0, mCount);
+        mFrameTargets = frameTargets;
+        final float[] from = new float[capacity];
+        System.arraycopy(mFrom, 0, from, 0, mCount);
+        mFrom = from;
+        final float[] to = new float[capacity];
+        System.arraycopy(mTo, 0, to, 0, mCount);
+        mTo = to;
+        final long[] start = new long[capacity];
+        System.arraycopy(mStartNanos, 0, start, 0, mCount);
+        mStartNanos = start;
+        final long[] duration = new long[capacity];
+        System.arraycopy(mDurationNanos, 0, duration, 0, mCount);
+        mDurationNanos = duration;
+        final Slot[] slots = new Slot[capacity];
+        System.arraycopy(mSlots, 0, slots, 0, mSlots.length);
+        mSlots = slots;
+    }
+
+    /**
+     * Move the last animation in place of the removed one.
+     */
+    private void remove (int index)
+    {
+        mIndices.remove(mGlyphs[index]);
+        final Slot removed = mSlots[index];
+        final int last = --mCount;
+        mSlots[index] = mSlots[last];
+        mSlots[index].mIndex = index;
+        mSlots[last] = removed;
+        mGlyphs[index] = mGlyphs[last];
+        mFrameTargets[index] = mFrameTargets[last];
+        mFrom[index] = mFrom[last];
+        mTo[index] = mTo[last];
+        mStartNanos[index] = mStartNanos[last];
+        mDurationNanos[index] = mDurationNanos[last];
+        // Do not leak the glyphs
+        mGlyphs[last] = null;
+        mFrameTargets[last] = null;
+    }
+
+    @Override
+    public void doFrame (long frameTimeNanos)
+    {
+        mFrameScheduled = false;
+
+        int i = 0;
+        while (i < mCount)
+        {
+            if (mStartNanos[i] < 0)
+            {
+                mStartNanos[i] = frameTimeNanos;
+            }
+            final float fraction = mDurationNanos[i] > 0 ? (float) (frameTimeNanos - mStartNanos[i]) / mDurationNanos[i] : 1;
+            if (fraction >= 1)
+            {
+                final GlyphAnimator.Target glyph = mGlyphs[i];
+                final GlyphAnimator.FrameTarget frameTarget = mFrameTargets[i];
+                final float position = mTo[i];
+                // Removed first: the glyph may start a new animation from setPosition()
+                remove(i);
+                if (frameTarget != null)
+                    frameTarget.setPositionNow(position);
+                else
+                    glyph.setPosition(position);
+                continue;
+            }
+
+            final GlyphAnimator.FrameTarget frameTarget = mFrameTargets[i];
+            if (frameTarget == null)
+            {
+                mGlyphs[i].setPosition(mFrom[i] + (mTo[i] - mFrom[i]) * mEasing.getValue(fraction));
+            }
+            else if (frameTarget.isAnimationVisible())
+            {
+                frameTarget.setPositionNow(mFrom[i] + (mTo[i] - mFrom[i]) * mEasing.getValue(fraction));
+            }
+            i++;
+        }
+
+        if (mCount > 0 && !mFrameScheduled)
+        {
+            mFrameScheduled = true;
+            mFrameClock.postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Index of an animation in the arrays.
+     */
+    private static final class Slot
+    {
+        int mIndex;
+    }
+}
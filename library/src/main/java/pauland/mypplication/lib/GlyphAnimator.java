@@ -0,0 +1,277 @@
+package pauland.mypplication.lib;
+
+/**
+ * Moves the glyph on its own, frame by frame, instead of only following the slide events of the
+ * drawer (no <code>android.*</code> dependency).
+ * <p/>
+ * Two modes:
+ * <ul>
+ * <li>{@link #animateTo(float)} eases the glyph to a position over a fixed duration along a precomputed curve, used when
+ * the drawer opens or closes by itself (home button, settling after a drag).</li>
+ * <li>While the drawer is dragged, every slide event is a {@link #addSample(float, long) sample}:
+ * the glyph follows the drawer extrapolated with its recent velocity at each frame, so it moves
+ * smoothly even when slide events arrive irregularly. The velocity also predicts where the drawer
+ * settles when released, see {@link #settle()}.</li>
+ * </ul>
+ */
+public final class GlyphAnimator implements FrameClock.Callback
+{
+    /**
+     * What the animator moves.
+     */
+    public interface Target
+    {
+        float getPosition ();
+
+        void setPosition (float position);
+    }
+
+    /**
+     * A target drawn on screen, such as the drawables of this library, updated by a
+     * {@link GlyphAnimationScheduler} only while it can be seen.
+     */
+    public interface FrameTarget extends Target
+    {
+        /**
+         * @return false while the target is hidden or detached, its position is then only set
+         * when its animation ends
+         */
+        boolean isAnimationVisible ();
+
+        /**
+         * Set the position from a frame callback, redrawing the target right away instead of on
+         * the next frame.
+         */
+        void setPositionNow (float position);
+    }
+
+    // Slide samples used to estimate the velocity
+    private static final int  SAMPLE_COUNT        = 4;
+    // Samples older than this are ignored, and the glyph is not extrapolated further than this
+    private static final long SAMPLE_WINDOW_NANOS = 100 * 1000000L;
+
+    private static final int MODE_IDLE = 0;
+    private static final int MODE_ANIMATE = 1;
+    private static final int MODE_DRAG = 2;
+
+    private final Target        mTarget;
+    private FrameClock          mFrameClock;
+    private long                mDurationNanos;
+    private GlyphProgressMapper mEasing = GlyphProgressMapper.EASE_IN_OUT;
+    private int                 mMode   = MODE_IDLE;
+    private boolean             mFrameScheduled;
+
+    private float mFrom, mTo;
+    private long  mStartNanos, mAnimationNanos;
+
+    private final float[] mSampleOffsets = new float[SAMPLE_COUNT];
+    private final long[]  mSampleTimes   = new long[SAMPLE_COUNT];
+    private int           mSampleCount, mSampleIndex;
+
+    /**
+     * @param target     what the animator moves
+     * @param frameClock clock driving the animation
+     * @param durationMs duration of an animation from 0 to 1, shorter moves are faster
+     */
+    public GlyphAnimator (Target target, FrameClock frameClock, long durationMs)
+    {
+        mTarget = target;
+        mFrameClock = frameClock;
+        mDurationNanos = durationMs * 1000000L;
+    }
+
+    public void setFrameClock (FrameClock frameClock)
+    {
+        cancel();
+        mFrameClock = frameClock;
+    }
+
+    public void setDuration (long durationMs)
+    {
+        mDurationNanos = durationMs * 1000000L;
+    }
+
+    /**
+     * @param easing curve of the animations, {@link GlyphProgressMapper#EASE_IN_OUT} by default
+     */
+    public void setEasing (GlyphProgressMapper easing)
+    {
+        if (easing == null)
+            throw new IllegalArgumentException("easing must not be null");
+
+        mEasing = easing;
+    }
+
+    /**
+     * @return true while the animator moves the glyph
+     */
+    public boolean isRunning ()
+    {
+        return mMode != MODE_IDLE;
+    }
+
+    /**
+     * @return the position the glyph is animated to, or its current position if no animation is
+     * running
+     */
+    public float getTargetPosition ()
+    {
+        return mMode == MODE_ANIMATE ? mTo : mTarget.getPosition();
+    }
+
+    /**
+     * Ease the glyph from its current position to the given one. Nothing changes if an animation
+     * to this position is already running.
+     *
+     * @param position a value between 0 and 1
+     */
+    public void animateTo (float position)
+    {
+        if (mMode == MODE_ANIMATE && mTo == position)
+            return;
+
+        final float from = mTarget.getPosition();
+        if (from == position || mFrameClock == null || mDurationNanos <= 0)
+        {
+            stop();
+            mTarget.setPosition(position);
+            return;
+        }
+
+        mMode = MODE_ANIMATE;
+        mFrom = from;
+        mTo = position;
+        mAnimationNanos = (long) (mDurationNanos * Math.abs(position - from));
+        // Started by the next frame
+        mStartNanos = -1;
+        scheduleFrame();
+    }
+
+    /**
+     * Add a slide event of a drawer being dragged: the glyph now follows the drawer.
+     *
+     * @param offset    offset of the drawer, from 0 to 1
+     * @param timeNanos time of the event, in the time base of the frame clock
+     *                  (<code>System.nanoTime()</code>)
+     */
+    public void addSample (float offset, long timeNanos)
+    {
+        mSampleIndex = (mSampleIndex + 1) % SAMPLE_COUNT;
+        mSampleOffsets[mSampleIndex] = offset;
+        mSampleTimes[mSampleIndex] = timeNanos;
+        mSampleCount = Math.min(mSampleCount + 1, SAMPLE_COUNT);
+
+        if (mFrameClock == null)
+        {
+            stop();
+            mTarget.setPosition(offset);
+            return;
+        }
+        mMode = MODE_DRAG;
+        scheduleFrame();
+    }
+
+    /**
+     * The drawer was released: ease the glyph to the position the drawer is going to settle at,
+     * predicted from its last samples the same way the drawer decides. An animation already
+     * running (for example started by the home button) is kept.
+     */
+    public void settle ()
+    {
+        if (mMode == MODE_ANIMATE || mSampleCount == 0)
+            return;
+
+        final float velocity = getVelocity();
+        final float offset = mSampleOffsets[mSampleIndex];
+        mSampleCount = 0;
+        animateTo(velocity > 0 || (velocity == 0 && offset > 0.5f) ? 1 : 0);
+    }
+
+    /**
+     * Stop moving the glyph where it is and forget the samples.
+     */
+    public void cancel ()
+    {
+        stop();
+        mSampleCount = 0;
+    }
+
+    private void stop ()
+    {
+        mMode = MODE_IDLE;
+        if (mFrameScheduled)
+        {
+            mFrameScheduled = false;
+            mFrameClock.removeFrameCallback(this);
+        }
+    }
+
+    private void scheduleFrame ()
+    {
+        if (!mFrameScheduled)
+        {
+            mFrameScheduled = true;
+            mFrameClock.postFrameCallback(this);
+        }
+    }
+
+    /**
+     * @return velocity of the drawer in offset per second, from the samples of the last
+     * {@link #SAMPLE_WINDOW_NANOS}
+     */
+    private float getVelocity ()
+    {
+        final long newest = mSampleTimes[mSampleIndex];
+        int oldest = mSampleIndex;
+        for (int i = 1; i < mSampleCount; i++)
+        {
+            final int index = (mSampleIndex - i + SAMPLE_COUNT) % SAMPLE_COUNT;
+            if (newest - mSampleTimes[index] > SAMPLE_WINDOW_NANOS)
+                break;
+            oldest = index;
+        }
+
+        final long elapsed = newest - mSampleTimes[oldest];
+        if (elapsed <= 0)
+            return 0;
+        return (mSampleOffsets[mSampleIndex] - mSampleOffsets[oldest]) * 1e9f / elapsed;
+    }
+
+    @Override
+    public void doFrame (long frameTimeNanos)
+    {
+        mFrameScheduled = false;
+        if (mMode == MODE_ANIMATE)
+        {
+            if (mStartNanos < 0)
+            {
+                mStartNanos = frameTimeNanos;
+            }
+            final float fraction = mAnimationNanos > 0 ? (float) (frameTimeNanos - mStartNanos) / mAnimationNanos : 1;
+            if (fraction >= 1)
+            {
+                mMode = MODE_IDLE;
+                mTarget.setPosition(mTo);
+                return;
+            }
+            mTarget.setPosition(mFrom + (mTo - mFrom) * mEasing.getValue(fraction));
+            scheduleFrame();
+        }
+        else if (mMode == MODE_DRAG)
+        {
+            final long age = frameTimeNanos - mSampleTimes[mSampleIndex];
+            final float offset = mSampleOffsets[mSampleIndex];
+            if (age >= SAMPLE_WINDOW_NANOS)
+            {
+                // The finger stopped, wait for the next sample
+                mMode = MODE_IDLE;
+                mTarget.setPosition(offset);
+                return;
+            }
+
+            final float predicted = offset + getVelocity() * Math.max(0, age) / 1e9f;
+            mTarget.setPosition(predicted <= 0 ? 0 : predicted >= 1 ? 1 : predicted);
+            scheduleFrame();
+        }
+    }
+}
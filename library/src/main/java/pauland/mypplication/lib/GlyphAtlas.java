@@ -0,0 +1,176 @@
+package pauland.mypplication.lib;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * Pre-rasterized frames of the glyph, packed in a grid inside a single {@link Bitmap.Config#ALPHA_8}
+ * bitmap.
+ * <p/>
+ * Only the coverage of the glyph is stored: the frames are drawn with the color of the paint, so
+ * an atlas does not depend on the colors of the icon and is shared through {@link GlyphAtlasCache}
+ * by every icon having the same {@link Key}.
+ */
+final class GlyphAtlas
+{
+    // Keep the bitmap below the smallest maximum texture size of the devices we support
+    private static final int MAX_ATLAS_WIDTH = 2048;
+
+    private final Key    mKey;
+    private final Bitmap mBitmap;
+    private final int    mColumns;
+
+    private GlyphAtlas (Key key, Bitmap bitmap, int columns)
+    {
+        mKey = key;
+        mBitmap = bitmap;
+        mColumns = columns;
+    }
+
+    /**
+     * Draw every frame described by the key.
+     */
+    static GlyphAtlas rasterize (Key key)
+    {
+        if (key.width <= 0 || key.height <= 0 || key.frameCount < 2)
+            throw new IllegalArgumentException("Empty atlas: " + key.width + "x" + key.height + ", " + key.frameCount + " frames");
+
+        final int columns = Math.max(1, Math.min(key.frameCount, MAX_ATLAS_WIDTH / key.width));
+        final int rows = (key.frameCount + columns - 1) / columns;
+        final Bitmap bitmap = Bitmap.createBitmap(columns * key.width, rows * key.height, Bitmap.Config.ALPHA_8);
+        final Canvas canvas = new Canvas(bitmap);
+
+        final GlyphGeometry geometry = new GlyphGeometry();
+        geometry.setStyle(key.style);
+        geometry.setBarCount(key.barCount);
+        geometry.setPaddingLR(key.paddingLR);
+        geometry.setPaddingTB(key.paddingTB);
+        geometry.setBarHeight(key.barHeight);
+        geometry.setBounds(0, 0, key.width, key.height);
+
+        final float[] bars = new float[GlyphGeometry.BUFFER_SIZE];
+        final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        final RectF tmpRect = new RectF();
+        final int last = key.frameCount - 1;
+        for (int i = 0; i < key.frameCount; i++)
+        {
+            geometry.compute((float) i / last, bars);
+
+            canvas.save();
+            canvas.translate((i % columns) * key.width, (i / columns) * key.height);
+            GlyphRenderer.drawBars(canvas, bars, key.barCount, key.barHeight, key.rounded, Color.WHITE, paint, tmpRect);
+            canvas.restore();
+        }
+
+        return new GlyphAtlas(key, bitmap, columns);
+    }
+
+    /**
+     * @param width    width of a frame, in pixel
+     * @param height   height of a frame, in pixel
+     * @param maxBytes memory available for the bitmap, in bytes
+     * @return the largest number of frames of an atlas fitting in <code>maxBytes</code>
+     */
+    static int getMaxFrameCount (int width, int height, int maxBytes)
+    {
+        if (width <= 0 || height <= 0)
+            return 0;
+
+        final int fit = maxBytes / width / height;
+        final int columns = Math.max(1, MAX_ATLAS_WIDTH / width);
+        // Past one row the bitmap holds whole rows, only full rows are sure to fit
+        return fit > columns ? fit / columns * columns : fit;
+    }
+
+    Key getKey ()
+    {
+        return mKey;
+    }
+
+    Bitmap getBitmap ()
+    {
+        return mBitmap;
+    }
+
+    /**
+     * @return the memory used by the bitmap, in bytes
+     */
+    int getByteCount ()
+    {
+        return mBitmap.getRowBytes() * mBitmap.getHeight();
+    }
+
+    /**
+     * @param position a value between 0 and 1
+     * @return the index of the frame closest to the position
+     */
+    int getFrameIndex (float position)
+    {
+        final float clamped = position <= 0 ? 0 : position >= 1 ? 1 : position;
+        return (int) (clamped * (mKey.frameCount - 1) + 0.5f);
+    }
+
+    /**
+     * @param frame index of the frame
+     * @param out   receives the area of the frame inside the bitmap
+     */
+    void getFrameRect (int frame, Rect out)
+    {
+        final int left = (frame % mColumns) * mKey.width;
+        final int top = (frame / mColumns) * mKey.height;
+        out.set(left, top, left + mKey.width, top + mKey.height);
+    }
+
+    /**
+     * Everything the pixels of an atlas depend on.
+     */
+    static final class Key
+    {
+        final int     style, barCount, width, height, paddingLR, paddingTB, barHeight, frameCount;
+        final boolean rounded;
+
+        Key (int style, int barCount, int width, int height, int paddingLR, int paddingTB, int barHeight, boolean rounded, int frameCount)
+        {
+            this.style = style;
+            this.barCount = barCount;
+            this.width = width;
+            this.height = height;
+            this.paddingLR = paddingLR;
+            this.paddingTB = paddingTB;
+            this.barHeight = barHeight;
+            this.rounded = rounded;
+            this.frameCount = frameCount;
+        }
+
+        @Override
+        public boolean equals (Object o)
+        {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+
+            final Key key = (Key) o;
+            return style == key.style && barCount == key.barCount && width == key.width && height == key.height && paddingLR == key.paddingLR && paddingTB == key.paddingTB && barHeight == key.barHeight && rounded == key.rounded && frameCount == key.frameCount;
+        }
+
+        @Override
+        public int hashCode ()
+        {
+            int result = style;
+            result = 31 * result + barCount;
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + paddingLR;
+            result = 31 * result + paddingTB;
+            result = 31 * result + barHeight;
+            result = 31 * result + (rounded ? 1 : 0);
+            result = 31 * result + frameCount;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package pauland.mypplication.lib;
+
+import android.support.v4.util.LruCache;
+import android.util.Log;
+
+import java.util.Map;
+
+/**
+ * Process-wide cache of the pre-rasterized glyph frames used by
+ * {@link DrawerToggleHamburger#RENDER_MODE_ATLAS}.
+ * <p/>
+ * Icons with the same style, size, paddings, bar height and rounding share one atlas. The cache
+ * is bounded by the memory of the bitmaps and must only be used from the main thread.
+ */
+public final class GlyphAtlasCache
+{
+    /**
+     * Default maximum size of the cache, in bytes
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024 * 1024;
+
+    private static final String TAG = "GlyphAtlasCache";
+
+    private static AtlasLruCache sCache = new AtlasLruCache(DEFAULT_MAX_SIZE);
+    // Statistics of the caches replaced by setMaxSize(int)
+    private static int           sHitCount, sMissCount;
+    // Only warn once per process, the icons keep their configuration
+    private static boolean       sTooLargeWarned;
+
+    private GlyphAtlasCache ()
+    {
+    }
+
+    static GlyphAtlas get (GlyphAtlas.Key key)
+    {
+        return sCache.get(key);
+    }
+
+    /**
+     * An atlas is only shared while it is cached, so an atlas larger than the cache would be
+     * rasterized again by every icon: the frames are reduced to fit.
+     *
+     * @param width      width of a frame, in pixel
+     * @param height     height of a frame, in pixel
+     * @param frameCount number of frames requested
+     * @return the number of frames of the atlas, or 0 if not even 2 frames fit in the cache
+     */
+    static int fitFrameCount (int width, int height, int frameCount)
+    {
+        final int maxFrameCount = GlyphAtlas.getMaxFrameCount(width, height, sCache.maxSize());
+        if (frameCount <= maxFrameCount)
+            return frameCount;
+
+        if (!sTooLargeWarned)
+        {
+            sTooLargeWarned = true;
+            Log.w(TAG, "An atlas of " + frameCount + " frames of " + width + "x" + height + " does not fit in " + sCache.maxSize() + " bytes, " + (maxFrameCount >= 2 ? "using " + maxFrameCount + " frames" : "drawing on the canvas instead") + ". See GlyphAtlasCache.setMaxSize()");
+        }
+        return maxFrameCount >= 2 ? maxFrameCount : 0;
+    }
+
+    /**
+     * Change the maximum size of the cache. The most recently used atlases are kept as long as
+     * they fit, the others stay valid for the icons using them. The hit and miss counts go on.
+     *
+     * @param maxSize maximum memory used by the cached atlases, in bytes
+     */
+    public static void setMaxSize (int maxSize)
+    {
+        final AtlasLruCache cache = new AtlasLruCache(maxSize);
+        // From the least to the most recently used, so the least recently used are evicted first
+        for (Map.Entry<GlyphAtlas.Key, GlyphAtlas> entry : sCache.snapshot().entrySet())
+        {
+            cache.put(entry.getKey(), entry.getValue());
+        }
+        sHitCount += sCache.hitCount();
+        sMissCount += sCache.missCount();
+        sCache = cache;
+    }
+
+    /**
+     * @return maximum memory used by the cached atlases, in bytes
+     */
+    public static int getMaxSize ()
+    {
+        return sCache.maxSize();
+    }
+
+    /**
+     * @return memory currently used by the cached atlases, in bytes
+     */
+    public static int getSize ()
+    {
+        return sCache.size();
+    }
+
+    /**
+     * @return number of times an atlas was found in the cache
+     */
+    public static int getHitCount ()
+    {
+        return sHitCount + sCache.hitCount();
+    }
+
+    /**
+     * @return number of times an atlas had to be rasterized
+     */
+    public static int getMissCount ()
+    {
+        return sMissCount + sCache.missCount();
+    }
+
+    /**
+     * Drop every cached atlas.
+     */
+    public static void clear ()
+    {
+        sCache.evictAll();
+    }
+
+    private static class AtlasLruCache extends LruCache<GlyphAtlas.Key, GlyphAtlas>
+    {
+        AtlasLruCache (int maxSize)
+        {
+            super(maxSize);
+        }
+
+        @Override
+        protected GlyphAtlas create (GlyphAtlas.Key key)
+        {
+            return GlyphAtlas.rasterize(key);
+        }
+
+        @Override
+        protected int sizeOf (GlyphAtlas.Key key, GlyphAtlas value)
+        {
+            return value.getByteCount();
+        }
+    }
+}
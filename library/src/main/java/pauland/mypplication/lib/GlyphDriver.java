@@ -0,0 +1,239 @@
+package pauland.mypplication.lib;
+
+import android.support.v4.view.GravityCompat;
+import android.support.v4.view.ViewCompat;
+import android.support.v4.widget.DrawerLayout;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Moves a glyph with one drawer of a {@link DrawerLayout}: the glyph has its own position, mapping
+ * and animation, and the events of the other drawer are ignored.
+ */
+final class GlyphDriver
+{
+    private final DrawerToggleHamburger.TransformDrawable mGlyph;
+    private int                 mGravity;
+    // Last drawer views seen, so most events are filtered by a reference comparison
+    private View                mDrawerView, mOtherDrawerView;
+    private GlyphProgressMapper mProgressMapper = GlyphProgressMapper.LEGACY;
+    // Moves the glyph on its own, null when the glyph only follows the slide events
+    private GlyphAnimator       mAnimator;
+    private int                 mDrawerState    = DrawerLayout.STATE_IDLE;
+    private float               mLastSlideOffset;
+
+    /**
+     * @param glyph   the glyph to move
+     * @param gravity gravity of the drawer, see {@link #setGravity(int)}
+     */
+    GlyphDriver (DrawerToggleHamburger.TransformDrawable glyph, int gravity)
+    {
+        mGlyph = glyph;
+        mGravity = gravity;
+    }
+
+    DrawerToggleHamburger.TransformDrawable getGlyph ()
+    {
+        return mGlyph;
+    }
+
+    int getGravity ()
+    {
+        return mGravity;
+    }
+
+    /**
+     * @param gravity {@link GravityCompat#START}, {@link GravityCompat#END},
+     *                {@link Gravity#LEFT} or {@link Gravity#RIGHT}
+     */
+    void setGravity (int gravity)
+    {
+        mGravity = gravity;
+        forgetDrawerViews();
+    }
+
+    /**
+     * @param gravity a gravity accepted by {@link #setGravity(int)}
+     * @return the gravity of the drawer on the other side
+     */
+    static int getOppositeGravity (int gravity)
+    {
+        switch (gravity)
+        {
+            case GravityCompat.START:
+                return GravityCompat.END;
+            case GravityCompat.END:
+                return GravityCompat.START;
+            case Gravity.LEFT:
+                return Gravity.RIGHT;
+            default:
+                return Gravity.LEFT;
+        }
+    }
+
+    static boolean isValidGravity (int gravity)
+    {
+        return gravity == GravityCompat.START || gravity == GravityCompat.END || gravity == Gravity.LEFT || gravity == Gravity.RIGHT;
+    }
+
+    /**
+     * Resolve the drawer views again on the next events, for example after a change of layout
+     * direction.
+     */
+    void forgetDrawerViews ()
+    {
+        mDrawerView = null;
+        mOtherDrawerView = null;
+    }
+
+    /**
+     * @param drawerView the drawer of an event, or null if unknown
+     * @return true if the event is about the drawer of this glyph. Unknown drawers are accepted.
+     */
+    boolean isDrawer (View drawerView)
+    {
+        if (drawerView == mDrawerView || drawerView == null)
+            return true;
+        if (drawerView == mOtherDrawerView)
+            return false;
+
+        final ViewGroup.LayoutParams params = drawerView.getLayoutParams();
+        if (!(params instanceof DrawerLayout.LayoutParams))
+            return true;
+
+        final int layoutDirection = ViewCompat.getLayoutDirection(drawerView);
+        final int drawerGravity = GravityCompat.getAbsoluteGravity(((DrawerLayout.LayoutParams) params).gravity, layoutDirection);
+        final int gravity = GravityCompat.getAbsoluteGravity(mGravity, layoutDirection);
+        if ((drawerGravity & Gravity.HORIZONTAL_GRAVITY_MASK) == (gravity & Gravity.HORIZONTAL_GRAVITY_MASK))
+        {
+            mDrawerView = drawerView;
+            return true;
+        }
+        mOtherDrawerView = drawerView;
+        return false;
+    }
+
+    void setProgressMapper (GlyphProgressMapper progressMapper)
+    {
+        mProgressMapper = progressMapper;
+    }
+
+    /**
+     * @see DrawerToggleHamburger#setAnimationDuration(long)
+     */
+    void setAnimationDuration (long durationMs)
+    {
+        if (durationMs == 0)
+        {
+            if (mAnimator != null)
+            {
+                mAnimator.cancel();
+                mAnimator = null;
+            }
+        }
+        else if (mAnimator == null)
+        {
+            mAnimator = new GlyphAnimator(mGlyph, mGlyph.getFrameClock(), durationMs);
+        }
+        else
+        {
+            mAnimator.setDuration(durationMs);
+        }
+    }
+
+    void setFrameClock (FrameClock frameClock)
+    {
+        if (mAnimator != null)
+        {
+            mAnimator.setFrameClock(frameClock);
+        }
+    }
+
+    /**
+     * Jump to the state of the drawer. The layout direction may have changed: the drawer views are
+     * resolved again.
+     */
+    void sync (boolean open)
+    {
+        forgetDrawerViews();
+        if (mAnimator != null)
+        {
+            mAnimator.cancel();
+        }
+        mLastSlideOffset = open ? 1 : 0;
+        mGlyph.setPosition(open ? 1 : 0);
+    }
+
+    /**
+     * The drawer is about to open or close without being dragged, for example from a button.
+     */
+    void onToggle (boolean open)
+    {
+        if (mAnimator != null)
+        {
+            mAnimator.animateTo(open ? 1 : 0);
+        }
+    }
+
+    void onSlide (float slideOffset)
+    {
+        onSlide(slideOffset, mProgressMapper.map(mGlyph.getPosition(), slideOffset));
+    }
+
+    /**
+     * @param progress position of the glyph already mapped from the slide offset, see
+     *                 {@link DrawerListenerMultiplexer}. With an animation duration, the samples
+     *                 of a drag are these positions, the drawer only gives the direction of the
+     *                 other moves.
+     */
+    void onSlide (float slideOffset, float progress)
+    {
+        if (mAnimator == null)
+        {
+            mGlyph.setPosition(progress);
+            return;
+        }
+
+        if (mDrawerState == DrawerLayout.STATE_DRAGGING)
+        {
+            mAnimator.addSample(progress, System.nanoTime());
+        }
+        else if (!mAnimator.isRunning() && slideOffset != mLastSlideOffset)
+        {
+            // Opened or closed without the toggle nor a drag
+            mAnimator.animateTo(slideOffset > mLastSlideOffset ? 1 : 0);
+        }
+        mLastSlideOffset = slideOffset;
+    }
+
+    void onOpenedOrClosed (boolean open)
+    {
+        mLastSlideOffset = open ? 1 : 0;
+        if (mAnimator != null)
+        {
+            mAnimator.animateTo(open ? 1 : 0);
+        }
+        else
+        {
+            mGlyph.setPosition(open ? 1 : 0);
+        }
+    }
+
+    void onStateChanged (int newState)
+    {
+        mDrawerState = newState;
+        if (mAnimator == null)
+            return;
+
+        if (newState == DrawerLayout.STATE_DRAGGING)
+        {
+            // The finger took over, start from fresh samples
+            mAnimator.cancel();
+        }
+        else if (newState == DrawerLayout.STATE_SETTLING)
+        {
+            mAnimator.settle();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package pauland.mypplication.lib;
+
+/**
+ * Lookup table of the glyph at evenly spaced positions.
+ * <p/>
+ * {@link #rebuild(GlyphGeometry, ColorRamp)} samples the geometry and the color of the glyph for
+ * every frame of the table, so {@link #lookup(float, boolean, float[])} only copies (or blends)
+ * precomputed values: no trigonometry and no color math on the slide path.
+ */
+public final class GlyphFrameTable
+{
+    private final int     mFrameCount;
+    private final int[]   mColors;
+    // Bars of the frame being sampled, reused by every rebuild
+    private final float[] mBars = new float[GlyphGeometry.BUFFER_SIZE];
+    // Only grown, the table is rebuilt whenever the configuration changes
+    private float[] mFrames;
+    // Floats per frame, depends on the number of bars
+    private int     mFrameSize;
+
+    /**
+     * @param frameCount number of sampled positions (at least 2), for example 64, 128 or 256
+     */
+    public GlyphFrameTable (int frameCount)
+    {
+        if (frameCount < 2)
+            throw new IllegalArgumentException("A frame table needs at least 2 frames, got " + frameCount);
+
+        mFrameCount = frameCount;
+        mColors = new int[frameCount];
+    }
+
+    public int getFrameCount ()
+    {
+        return mFrameCount;
+    }
+
+    /**
+     * Sample the given geometry and colors for every frame. Allocates nothing unless the table
+     * grows to more bars than it ever held.
+     *
+     * @param geometry geometry of the glyph
+     * @param colors   colors of the glyph
+     */
+    public void rebuild (GlyphGeometry geometry, ColorRamp colors)
+    {
+        final int frameSize = geometry.getBarCount() * GlyphGeometry.STRIDE;
+        if (mFrames == null || mFrames.length < mFrameCount * frameSize)
+        {
+            mFrames = new float[mFrameCount * frameSize];
+        }
+        mFrameSize = frameSize;
+
+        final float[] bars = mBars;
+        final int last = mFrameCount - 1;
+        for (int i = 0; i < mFrameCount; i++)
+        {
+            final float position = (float) i / last;
+            geometry.compute(position, bars);
+            System.arraycopy(bars, 0, mFrames, i * frameSize, frameSize);
+            mColors[i] = colors.get(position);
+        }
+    }
+
+    /**
+     * Get the glyph at the given position. The table must have been built once.
+     *
+     * @param position    a value between 0 and 1
+     * @param interpolate true to blend the geometry and the color of the two closest frames, false
+     *                    to snap to the nearest frame
+     * @param out         buffer receiving the bars, large enough for the bar count of the
+     *                    geometry the table was built from
+     * @return the color of the glyph
+     */
+    public int lookup (float position, boolean interpolate, float[] out)
+    {
+        final int last = mFrameCount - 1;
+        final int frameSize = mFrameSize;
+        final float scaled = (position <= 0 ? 0 : position >= 1 ? 1 : position) * last;
+
+        if (!interpolate)
+        {
+            final int index = (int) (scaled + 0.5f);
+            System.arraycopy(mFrames, index * frameSize, out, 0, frameSize);
+            return mColors[index];
+        }
+
+        final int index = Math.min((int) scaled, last - 1);
+        final float fraction = scaled - index;
+        final int from = index * frameSize;
+        final int to = from + frameSize;
+        for (int i = 0; i < frameSize; i++)
+        {
+            final float start = mFrames[from + i];
+            out[i] = start + (mFrames[to + i] - start) * fraction;
+        }
+
+        // Two neighbor frames have close colors, blending them in sRGB is enough whatever the
+        // color space of the ramp
+        final int fromColor = mColors[index];
+        final int toColor = mColors[index + 1];
+        return fromColor == toColor ? fromColor : ColorRamp.interpolate(fraction, fromColor, toColor, ColorRamp.SPACE_SRGB);
+    }
+}
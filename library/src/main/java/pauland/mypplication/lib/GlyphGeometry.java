@@ -0,0 +1,424 @@
+package pauland.mypplication.lib;
+
+/**
+ * Platform independent geometry of the drawer glyph (no <code>android.*</code> dependency).
+ * <p/>
+ * Every value depending only on the style, the bounds, the paddings and the bar height is
+ * computed once, the first time {@link #compute(float, float[])} is called after one of them
+ * changed. A bar is then described by its state when the drawer is closed and by its state when
+ * the drawer is opened, given by its {@link GlyphStyle}, so a frame only costs a few
+ * multiply-adds per bar whatever the style.
+ * <p/>
+ * The glyph has {@link #getBarCount()} bars, stored as parallel arrays of primitives so the cost
+ * of a frame grows linearly with the number of bars, without branching on the bar or allocating.
+ * <p/>
+ * For each bar, {@link #compute(float, float[])} writes {@link #STRIDE} floats in the buffer:
+ * the two ends of the bar center line, the bar center, its half length, its rotation in degrees
+ * and its opacity (from 0 to 1).
+ * <p/>
+ * {@link #morphToStyle(int)} blends the bars of two styles: both are interpolated from their
+ * keyframes, so a morphing frame costs about the same as a sliding one.
+ */
+public final class GlyphGeometry
+{
+    /**
+     * Id of {@link GlyphStyles#CROSS}
+     */
+    public static final int STYLE_CROSS = 0;
+
+    /**
+     * Id of {@link GlyphStyles#ARROW}
+     */
+    public static final int STYLE_ARROW = 1;
+
+    /**
+     * Id of {@link GlyphStyles#CARET}
+     */
+    public static final int STYLE_CARET = 2;
+
+    /**
+     * Id of {@link GlyphStyles#DOTS}
+     */
+    public static final int STYLE_DOTS = 3;
+
+    public static final int DEFAULT_BAR_COUNT = 3;
+    public static final int MIN_BAR_COUNT     = 2;
+    public static final int MAX_BAR_COUNT     = 8;
+
+    public static final int X0          = 0;
+    public static final int Y0          = 1;
+    public static final int X1          = 2;
+    public static final int Y1          = 3;
+    public static final int CENTER_X    = 4;
+    public static final int CENTER_Y    = 5;
+    public static final int HALF_LENGTH = 6;
+    public static final int ANGLE       = 7;
+    public static final int ALPHA       = 8;
+    public static final int STRIDE      = 9;
+
+    /**
+     * Size of a buffer given to {@link #compute(float, float[])} large enough for any bar count
+     */
+    public static final int BUFFER_SIZE = MAX_BAR_COUNT * STRIDE;
+
+    private final GlyphStyle.Layout mLayout    = new GlyphStyle.Layout();
+    private final BarKeyframes      mKeyframes = new BarKeyframes();
+    // Keyframes the glyph morphs from, see morphToStyle(int)
+    private final BarKeyframes      mMorphFrom = new BarKeyframes();
+    private float                   mMorphFraction = 1;
+
+    private int        mStyle      = STYLE_CROSS;
+    private GlyphStyle mStyleShape = GlyphStyles.CROSS;
+    private int mBarCount = DEFAULT_BAR_COUNT;
+    private int mPaddingLR, mPaddingTB, mBarHeight;
+    private int mLeft, mTop, mWidth, mHeight;
+    private boolean mDirty = true;
+    private int     mGeneration;
+    private float   mMaxDisplacement;
+
+    public GlyphGeometry ()
+    {
+    }
+
+    /**
+     * Create a geometry with the same configuration as <code>source</code>.
+     */
+    public GlyphGeometry (GlyphGeometry source)
+    {
+        mStyle = source.mStyle;
+        mStyleShape = source.mStyleShape;
+        mBarCount = source.mBarCount;
+        mPaddingLR = source.mPaddingLR;
+        mPaddingTB = source.mPaddingTB;
+        mBarHeight = source.mBarHeight;
+        mLeft = source.mLeft;
+        mTop = source.mTop;
+        mWidth = source.mWidth;
+        mHeight = source.mHeight;
+    }
+
+    /**
+     * @return a number changing every time the configuration or the bounds change, so that values
+     * derived from this geometry know when they must be computed again
+     */
+    public int getGeneration ()
+    {
+        return mGeneration;
+    }
+
+    public int getStyle ()
+    {
+        return mStyle;
+    }
+
+    /**
+     * @param style id of a style registered in {@link GlyphStyles}
+     */
+    public void setStyle (int style)
+    {
+        if (style != mStyle)
+        {
+            final GlyphStyle styleShape = GlyphStyles.get(style);
+            if (styleShape == null)
+                throw new IllegalArgumentException("Unknown style " + style);
+
+            mStyle = style;
+            mStyleShape = styleShape;
+            changed();
+        }
+        mMorphFraction = 1;
+    }
+
+    /**
+     * Start morphing from the current bars to the given style: the glyph looks the same until
+     * {@link #setMorphFraction(float)} moves the morph forward. Morphing again before the end of
+     * a morph starts from the blended bars.
+     *
+     * @param style id of a style registered in {@link GlyphStyles}
+     */
+    public void morphToStyle (int style)
+    {
+        if (style == mStyle && mMorphFraction >= 1)
+            return;
+
+        if (mDirty)
+        {
+            buildKeyframes();
+        }
+        mMorphFrom.blend(mMorphFraction < 1 ? mMorphFrom : mKeyframes, mKeyframes, mMorphFraction, mBarCount);
+        setStyle(style);
+        mMorphFraction = 0;
+    }
+
+    /**
+     * @param fraction progress of the morph started by {@link #morphToStyle(int)}, from 0 (the
+     *                 previous bars) to 1 (the new style, which ends the morph)
+     */
+    public void setMorphFraction (float fraction)
+    {
+        mMorphFraction = fraction >= 1 ? 1 : fraction <= 0 ? 0 : fraction;
+    }
+
+    public float getMorphFraction ()
+    {
+        return mMorphFraction;
+    }
+
+    /**
+     * @return true while a morph is in progress. The morph is not part of the generation, the
+     * values derived from a morphing geometry are only valid for the current frame.
+     */
+    public boolean isMorphing ()
+    {
+        return mMorphFraction < 1;
+    }
+
+    public int getBarCount ()
+    {
+        return mBarCount;
+    }
+
+    /**
+     * @param barCount number of bars, from {@link #MIN_BAR_COUNT} to {@link #MAX_BAR_COUNT}
+     */
+    public void setBarCount (int barCount)
+    {
+        if (barCount < MIN_BAR_COUNT || barCount > MAX_BAR_COUNT)
+            throw new IllegalArgumentException("barCount must be between " + MIN_BAR_COUNT + " and " + MAX_BAR_COUNT + ", got " + barCount);
+
+        if (barCount != mBarCount)
+        {
+            mBarCount = barCount;
+            changed();
+        }
+    }
+
+    public int getPaddingLR ()
+    {
+        return mPaddingLR;
+    }
+
+    public void setPaddingLR (int paddingLR)
+    {
+        if (paddingLR != mPaddingLR)
+        {
+            mPaddingLR = paddingLR;
+            changed();
+        }
+    }
+
+    public int getPaddingTB ()
+    {
+        return mPaddingTB;
+    }
+
+    public void setPaddingTB (int paddingTB)
+    {
+        if (paddingTB != mPaddingTB)
+        {
+            mPaddingTB = paddingTB;
+            changed();
+        }
+    }
+
+    public int getBarHeight ()
+    {
+        return mBarHeight;
+    }
+
+    public void setBarHeight (int barHeight)
+    {
+        if (barHeight != mBarHeight)
+        {
+            mBarHeight = barHeight;
+            changed();
+        }
+    }
+
+    /**
+     * Set the area the glyph is drawn in.
+     */
+    public void setBounds (int left, int top, int right, int bottom)
+    {
+        if (left != mLeft || top != mTop || right - left != mWidth || bottom - top != mHeight)
+        {
+            mLeft = left;
+            mTop = top;
+            mWidth = right - left;
+            mHeight = bottom - top;
+            changed();
+        }
+    }
+
+    /**
+     * @return an upper bound of the distance (in pixels) any point of a bar moves when the
+     * position changes by 1, so a position change of <code>d</code> moves the glyph by at most
+     * <code>d * getMaxDisplacement()</code> pixels
+     */
+    public float getMaxDisplacement ()
+    {
+        if (mDirty)
+        {
+            buildKeyframes();
+        }
+        return mMaxDisplacement;
+    }
+
+    private void changed ()
+    {
+        mDirty = true;
+        mGeneration++;
+        // The bars morphed from were laid out for the previous configuration
+        mMorphFraction = 1;
+    }
+
+    /**
+     * Compute the bars for the given position.
+     *
+     * @param position a value between 0 (drawer closed) and 1 (drawer opened)
+     * @param out      buffer of at least {@link #getBarCount()} * {@link #STRIDE} floats
+     */
+    public void compute (float position, float[] out)
+    {
+        if (mDirty)
+        {
+            buildKeyframes();
+        }
+
+        final BarKeyframes to = mKeyframes;
+        final BarKeyframes from = mMorphFraction < 1 ? mMorphFrom : null;
+        final float morph = mMorphFraction;
+        final int barCount = mBarCount;
+        for (int i = 0, offset = 0; i < barCount; i++, offset += STRIDE)
+        {
+            float anchorX = to.mAnchorX[i] + to.mAnchorDX[i] * position;
+            float anchorY = to.mAnchorY[i] + to.mAnchorDY[i] * position;
+            float length = to.mLength[i] + to.mLengthD[i] * position;
+            float angle = to.mAngle[i] + to.mAngleD[i] * position;
+            float alpha = to.mAlpha[i] + to.mAlphaD[i] * position;
+            float along = to.mAnchorAlong[i];
+            float across = to.mAnchorAcross[i];
+
+            if (from != null)
+            {
+                final float fromAnchorX = from.mAnchorX[i] + from.mAnchorDX[i] * position;
+                final float fromAnchorY = from.mAnchorY[i] + from.mAnchorDY[i] * position;
+                final float fromLength = from.mLength[i] + from.mLengthD[i] * position;
+                final float fromAngle = from.mAngle[i] + from.mAngleD[i] * position;
+                final float fromAlpha = from.mAlpha[i] + from.mAlphaD[i] * position;
+                anchorX = fromAnchorX + (anchorX - fromAnchorX) * morph;
+                anchorY = fromAnchorY + (anchorY - fromAnchorY) * morph;
+                length = fromLength + (length - fromLength) * morph;
+                angle = fromAngle + (angle - fromAngle) * morph;
+                alpha = fromAlpha + (alpha - fromAlpha) * morph;
+                along = from.mAnchorAlong[i] + (along - from.mAnchorAlong[i]) * morph;
+                across = from.mAnchorAcross[i] + (across - from.mAnchorAcross[i]) * morph;
+            }
+
+            float cos = 1, sin = 0;
+            if (angle != 0)
+            {
+                final double radians = Math.toRadians(angle);
+                cos = (float) Math.cos(radians);
+                sin = (float) Math.sin(radians);
+            }
+
+            // Vector from the anchor to the bar center, in bar space
+            final float dx = (0.5f - along) * length;
+            final float dy = -across;
+            final float centerX = anchorX + cos * dx - sin * dy;
+            final float centerY = anchorY + sin * dx + cos * dy;
+            final float halfLength = length / 2;
+
+            out[offset + X0] = centerX - cos * halfLength;
+            out[offset + Y0] = centerY - sin * halfLength;
+            out[offset + X1] = centerX + cos * halfLength;
+            out[offset + Y1] = centerY + sin * halfLength;
+            out[offset + CENTER_X] = centerX;
+            out[offset + CENTER_Y] = centerY;
+            out[offset + HALF_LENGTH] = halfLength;
+            out[offset + ANGLE] = angle;
+            out[offset + ALPHA] = alpha;
+        }
+    }
+
+    private void buildKeyframes ()
+    {
+        final BarKeyframes keyframes = mKeyframes;
+        mLayout.set(mBarCount, mLeft, mTop, mWidth, mHeight, mPaddingLR, mPaddingTB, mBarHeight);
+        mStyleShape.buildKeyframes(mLayout, keyframes);
+
+        float maxDisplacement = 0;
+        for (int i = 0; i < mBarCount; i++)
+        {
+            // Farthest a bar end can be from the anchor, and how fast it moves relative to it
+            final float along = Math.abs(0.5f - keyframes.mAnchorAlong[i]) + 0.5f;
+            final float reach = along * Math.max(keyframes.mLength[i], keyframes.mLength[i] + keyframes.mLengthD[i]) + Math.abs(keyframes.mAnchorAcross[i]);
+            final float displacement = (float) Math.hypot(keyframes.mAnchorDX[i], keyframes.mAnchorDY[i]) + along * Math.abs(keyframes.mLengthD[i]) + (float) Math.toRadians(Math.abs(keyframes.mAngleD[i])) * reach;
+            maxDisplacement = Math.max(maxDisplacement, displacement);
+        }
+        mMaxDisplacement = maxDisplacement;
+
+        mDirty = false;
+    }
+
+    /**
+     * Keyframes of every bar: value when closed and delta to the value when opened.
+     */
+    private static final class BarKeyframes implements GlyphStyle.Keyframes
+    {
+        private final float[] mAnchorX      = new float[MAX_BAR_COUNT];
+        private final float[] mAnchorDX     = new float[MAX_BAR_COUNT];
+        private final float[] mAnchorY      = new float[MAX_BAR_COUNT];
+        private final float[] mAnchorDY     = new float[MAX_BAR_COUNT];
+        private final float[] mLength       = new float[MAX_BAR_COUNT];
+        private final float[] mLengthD      = new float[MAX_BAR_COUNT];
+        private final float[] mAngle        = new float[MAX_BAR_COUNT];
+        private final float[] mAngleD       = new float[MAX_BAR_COUNT];
+        private final float[] mAlpha        = new float[MAX_BAR_COUNT];
+        private final float[] mAlphaD       = new float[MAX_BAR_COUNT];
+        // Position of the rotation anchor along the bar (0 = start, 1 = end)
+        private final float[] mAnchorAlong  = new float[MAX_BAR_COUNT];
+        // Offset of the rotation anchor across the bar, from the center line
+        private final float[] mAnchorAcross = new float[MAX_BAR_COUNT];
+
+        @Override
+        public void setBar (int bar, float closedX, float closedY, float openedX, float openedY, float along, float across, float closedLength, float openedLength, float closedAngle, float openedAngle, float closedAlpha, float openedAlpha)
+        {
+            mAnchorX[bar] = closedX;
+            mAnchorDX[bar] = openedX - closedX;
+            mAnchorY[bar] = closedY;
+            mAnchorDY[bar] = openedY - closedY;
+            mAnchorAlong[bar] = along;
+            mAnchorAcross[bar] = across;
+            mLength[bar] = closedLength;
+            mLengthD[bar] = openedLength - closedLength;
+            mAngle[bar] = closedAngle;
+            mAngleD[bar] = openedAngle - closedAngle;
+            mAlpha[bar] = closedAlpha;
+            mAlphaD[bar] = openedAlpha - closedAlpha;
+        }
+
+        /**
+         * Set these keyframes to a blend of two others, <code>from</code> may be this instance.
+         */
+        void blend (BarKeyframes from, BarKeyframes to, float fraction, int barCount)
+        {
+            for (int i = 0; i < barCount; i++)
+            {
+                mAnchorX[i] = from.mAnchorX[i] + (to.mAnchorX[i] - from.mAnchorX[i]) * fraction;
+                mAnchorDX[i] = from.mAnchorDX[i] + (to.mAnchorDX[i] - from.mAnchorDX[i]) * fraction;
+                mAnchorY[i] = from.mAnchorY[i] + (to.mAnchorY[i] - from.mAnchorY[i]) * fraction;
+                mAnchorDY[i] = from.mAnchorDY[i] + (to.mAnchorDY[i] - from.mAnchorDY[i]) * fraction;
+                mLength[i] = from.mLength[i] + (to.mLength[i] - from.mLength[i]) * fraction;
+                mLengthD[i] = from.mLengthD[i] + (to.mLengthD[i] - from.mLengthD[i]) * fraction;
+                mAngle[i] = from.mAngle[i] + (to.mAngle[i] - from.mAngle[i]) * fraction;
+                mAngleD[i] = from.mAngleD[i] + (to.mAngleD[i] - from.mAngleD[i]) * fraction;
+                mAlpha[i] = from.mAlpha[i] + (to.mAlpha[i] - from.mAlpha[i]) * fraction;
+                mAlphaD[i] = from.mAlphaD[i] + (to.mAlphaD[i] - from.mAlphaD[i]) * fraction;
+                mAnchorAlong[i] = from.mAnchorAlong[i] + (to.mAnchorAlong[i] - from.mAnchorAlong[i]) * fraction;
+                mAnchorAcross[i] = from.mAnchorAcross[i] + (to.mAnchorAcross[i] - from.mAnchorAcross[i]) * fraction;
+            }
+        }
+    }
+}
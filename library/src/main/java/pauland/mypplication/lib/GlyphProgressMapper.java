@@ -0,0 +1,177 @@
+package pauland.mypplication.lib;
+
+/**
+ * Maps the slide offset of the drawer to the position of the glyph, see
+ * {@link DrawerToggleHamburger#setProgressMapper(GlyphProgressMapper)}.
+ * <p/>
+ * Every curve, built-in or not, is sampled once into a table when the mapper is created: mapping
+ * a slide event only reads and blends two entries. A mapper can use a different curve while the
+ * drawer opens and while it closes, the glyph then only moves forward within a half of the slide
+ * (see {@link #LEGACY}).
+ */
+public final class GlyphProgressMapper
+{
+    /**
+     * A curve from [0, 1] to [0, 1], only evaluated while the mapper is created.
+     */
+    public interface Curve
+    {
+        float getValue (float x);
+    }
+
+    private static final int TABLE_SIZE = 256;
+
+    /**
+     * The glyph follows the drawer
+     */
+    public static final GlyphProgressMapper LINEAR = create(new Curve()
+    {
+        @Override
+        public float getValue (float x)
+        {
+            return x;
+        }
+    });
+
+    /**
+     * The glyph starts and ends slowly, same curve as the CSS <code>ease-in-out</code>
+     */
+    public static final GlyphProgressMapper EASE_IN_OUT = cubicBezier(0.42f, 0, 0.58f, 1);
+
+    /**
+     * The glyph only starts opening once the drawer is half open, and only starts closing once it
+     * is half closed. Default mapping of the toggles.
+     */
+    public static final GlyphProgressMapper LEGACY = create(new Curve()
+    {
+        @Override
+        public float getValue (float x)
+        {
+            return Math.max(0.f, x - 0.5f) * 2;
+        }
+    }, new Curve()
+    {
+        @Override
+        public float getValue (float x)
+        {
+            return Math.min(1.f, x * 2);
+        }
+    });
+
+    private final float[] mOpening;
+    private final float[] mClosing;
+
+    private GlyphProgressMapper (float[] opening, float[] closing)
+    {
+        mOpening = opening;
+        mClosing = closing;
+    }
+
+    /**
+     * @param curve the position of the glyph for each slide offset
+     * @return a mapper sampling the curve
+     */
+    public static GlyphProgressMapper create (Curve curve)
+    {
+        final float[] table = sample(curve);
+        return new GlyphProgressMapper(table, table);
+    }
+
+    /**
+     * Past the middle of the slide the glyph follows the opening curve, but never goes back;
+     * before the middle it follows the closing curve, but never goes forward.
+     *
+     * @param opening the position of the glyph for each slide offset while the drawer opens
+     * @param closing the position of the glyph for each slide offset while the drawer closes
+     * @return a mapper sampling both curves
+     */
+    public static GlyphProgressMapper create (Curve opening, Curve closing)
+    {
+        return new GlyphProgressMapper(sample(opening), sample(closing));
+    }
+
+    /**
+     * Same definition as the CSS <code>cubic-bezier()</code> timing function: a cubic Bezier
+     * curve from (0, 0) to (1, 1).
+     *
+     * @param x1 x of the first control point, from 0 to 1
+     * @param y1 y of the first control point
+     * @param x2 x of the second control point, from 0 to 1
+     * @param y2 y of the second control point
+     * @return a mapper sampling the curve
+     */
+    public static GlyphProgressMapper cubicBezier (final float x1, final float y1, final float x2, final float y2)
+    {
+        if (x1 < 0 || x1 > 1 || x2 < 0 || x2 > 1)
+            throw new IllegalArgumentException("x1 and x2 must be between 0 and 1");
+
+        return create(new Curve()
+        {
+            @Override
+            public float getValue (float x)
+            {
+                // x(t) is monotonic with x1 and x2 in [0, 1]: find t by bisection
+                float low = 0, high = 1, t = x;
+                for (int i = 0; i < 24; i++)
+                {
+                    if (bezier(t, x1, x2) < x)
+                        low = t;
+                    else
+                        high = t;
+                    t = (low + high) / 2;
+                }
+                return bezier(t, y1, y2);
+            }
+        });
+    }
+
+    private static float bezier (float t, float p1, float p2)
+    {
+        final float u = 1 - t;
+        return 3 * u * u * t * p1 + 3 * u * t * t * p2 + t * t * t;
+    }
+
+    private static float[] sample (Curve curve)
+    {
+        if (curve == null)
+            throw new IllegalArgumentException("curve must not be null");
+
+        final float[] table = new float[TABLE_SIZE + 1];
+        for (int i = 0; i <= TABLE_SIZE; i++)
+        {
+            table[i] = curve.getValue((float) i / TABLE_SIZE);
+        }
+        return table;
+    }
+
+    private static float lookup (float[] table, float x)
+    {
+        final float scaled = (x <= 0 ? 0 : x >= 1 ? 1 : x) * TABLE_SIZE;
+        final int index = Math.min((int) scaled, TABLE_SIZE - 1);
+        return table[index] + (table[index + 1] - table[index]) * (scaled - index);
+    }
+
+    /**
+     * @param x a value between 0 and 1
+     * @return the value of the curve, of the opening curve if the mapper has two
+     */
+    public float getValue (float x)
+    {
+        return lookup(mOpening, x);
+    }
+
+    /**
+     * @param glyphPosition current position of the glyph
+     * @param slideOffset   new offset of the drawer
+     * @return the new position of the glyph
+     */
+    public float map (float glyphPosition, float slideOffset)
+    {
+        if (mOpening == mClosing)
+            return lookup(mOpening, slideOffset);
+
+        if (slideOffset > 0.5f)
+            return Math.max(glyphPosition, lookup(mOpening, slideOffset));
+        return Math.min(glyphPosition, lookup(mClosing, slideOffset));
+    }
+}
@@ -0,0 +1,132 @@
+package pauland.mypplication.lib;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+/**
+ * Draws the bars computed by {@link GlyphGeometry} on a {@link Canvas}.
+ */
+final class GlyphRenderer
+{
+    /**
+     * Size of a buffer given to {@link #drawLines(Canvas, float[], int, int, boolean, int, Paint, float[])}
+     * large enough for any bar count
+     */
+    static final int LINES_BUFFER_SIZE = GlyphGeometry.MAX_BAR_COUNT * 4;
+
+    private GlyphRenderer ()
+    {
+    }
+
+    /**
+     * Draw every bar as a (rounded) rectangle, rotated around its center.
+     *
+     * @param canvas    destination
+     * @param bars      bars filled by {@link GlyphGeometry#compute(float, float[])}
+     * @param barCount  number of bars
+     * @param barHeight thickness of a bar
+     * @param rounded   true if the bar ends are rounded
+     * @param color     color of the glyph, multiplied by the alpha of each bar
+     * @param paint     paint used to draw, its color is overwritten
+     * @param tmpRect   temporary rectangle
+     */
+    static void drawBars (Canvas canvas, float[] bars, int barCount, int barHeight, boolean rounded, int color, Paint paint, RectF tmpRect)
+    {
+        final int colorAlpha = Color.alpha(color);
+        final float halfBarHeight = barHeight / 2f;
+        final float radius = barHeight / 2;
+        paint.setColor(color);
+
+        final int size = barCount * GlyphGeometry.STRIDE;
+        for (int offset = 0; offset < size; offset += GlyphGeometry.STRIDE)
+        {
+            final int alpha = (int) (colorAlpha * bars[offset + GlyphGeometry.ALPHA]);
+            if (alpha <= 0)
+                continue;
+
+            final float centerX = bars[offset + GlyphGeometry.CENTER_X];
+            final float centerY = bars[offset + GlyphGeometry.CENTER_Y];
+            final float halfLength = bars[offset + GlyphGeometry.HALF_LENGTH];
+            final float angle = bars[offset + GlyphGeometry.ANGLE];
+
+            paint.setAlpha(alpha);
+            tmpRect.set(centerX - halfLength, centerY - halfBarHeight, centerX + halfLength, centerY + halfBarHeight);
+
+            if (angle != 0)
+            {
+                canvas.save();
+                canvas.rotate(angle, centerX, centerY);
+            }
+
+            if (rounded)
+                canvas.drawRoundRect(tmpRect, radius, radius, paint);
+            else
+                canvas.drawRect(tmpRect, paint);
+
+            if (angle != 0)
+                canvas.restore();
+        }
+    }
+
+    /**
+     * Draw every bar as a stroked line without touching the canvas matrix: the opaque bars are
+     * emitted with a single {@link Canvas#drawLines(float[], int, int, Paint)} call, only a bar
+     * fading in or out needs its own call.
+     *
+     * @param canvas    destination
+     * @param bars      bars filled by {@link GlyphGeometry#compute(float, float[])}
+     * @param barCount  number of bars
+     * @param barHeight thickness of a bar
+     * @param rounded   true if the bar ends are rounded
+     * @param color     color of the glyph, multiplied by the alpha of each bar
+     * @param paint     paint used to draw, its color, stroke width and cap are overwritten
+     * @param lines     temporary buffer of at least <code>barCount * 4</code> floats
+     */
+    static void drawLines (Canvas canvas, float[] bars, int barCount, int barHeight, boolean rounded, int color, Paint paint, float[] lines)
+    {
+        // A round cap goes beyond the end of the line, shorten the line so the bar keeps its length
+        final float capLength = rounded ? barHeight / 2f : 0;
+        paint.setColor(color);
+        paint.setStrokeWidth(barHeight);
+        paint.setStrokeCap(rounded ? Paint.Cap.ROUND : Paint.Cap.BUTT);
+
+        final int size = barCount * GlyphGeometry.STRIDE;
+        int count = 0;
+        for (int offset = 0; offset < size; offset += GlyphGeometry.STRIDE)
+        {
+            if (bars[offset + GlyphGeometry.ALPHA] >= 1)
+                count = putLine(bars, offset, capLength, lines, count);
+        }
+        if (count > 0)
+            canvas.drawLines(lines, 0, count, paint);
+
+        final int colorAlpha = Color.alpha(color);
+        for (int offset = 0; offset < size; offset += GlyphGeometry.STRIDE)
+        {
+            final float barAlpha = bars[offset + GlyphGeometry.ALPHA];
+            final int alpha = (int) (colorAlpha * barAlpha);
+            if (barAlpha >= 1 || alpha <= 0)
+                continue;
+
+            paint.setAlpha(alpha);
+            putLine(bars, offset, capLength, lines, count);
+            canvas.drawLines(lines, count, 4, paint);
+        }
+    }
+
+    private static int putLine (float[] bars, int offset, float capLength, float[] lines, int index)
+    {
+        final float centerX = bars[offset + GlyphGeometry.CENTER_X];
+        final float centerY = bars[offset + GlyphGeometry.CENTER_Y];
+        final float halfLength = bars[offset + GlyphGeometry.HALF_LENGTH];
+        final float scale = halfLength > capLength ? (halfLength - capLength) / halfLength : 0;
+
+        lines[index] = centerX + (bars[offset + GlyphGeometry.X0] - centerX) * scale;
+        lines[index + 1] = centerY + (bars[offset + GlyphGeometry.Y0] - centerY) * scale;
+        lines[index + 2] = centerX + (bars[offset + GlyphGeometry.X1] - centerX) * scale;
+        lines[index + 3] = centerY + (bars[offset + GlyphGeometry.Y1] - centerY) * scale;
+        return index + 4;
+    }
+}
@@ -0,0 +1,100 @@
+package pauland.mypplication.lib;
+
+import android.graphics.drawable.Drawable;
+import android.support.v4.util.LruCache;
+
+import java.util.Map;
+
+/**
+ * Process-wide cache of the glyph states shared by the drawables of
+ * {@link DrawerToggleHamburger.TransformDrawable#obtain(android.content.res.Resources, DrawerToggleHamburger.Config)}.
+ * <p/>
+ * Drawables obtained for equal configurations share one state: geometry, keyframe tables, color
+ * ramp and atlas. A drawable changing its configuration first copies the state, so a cached
+ * state never changes. The cache is bounded by a number of configurations and must only be used
+ * from the main thread. Evicted states stay valid for the drawables using them.
+ */
+public final class GlyphStateCache
+{
+    /**
+     * Default maximum number of cached configurations
+     */
+    public static final int DEFAULT_MAX_SIZE = 16;
+
+    private static LruCache<DrawerToggleHamburger.Config, Drawable.ConstantState> sCache = new LruCache<DrawerToggleHamburger.Config, Drawable.ConstantState>(DEFAULT_MAX_SIZE);
+    // Statistics of the caches replaced by setMaxSize(int)
+    private static int sHitCount, sMissCount;
+
+    private GlyphStateCache ()
+    {
+    }
+
+    static Drawable.ConstantState get (DrawerToggleHamburger.Config config)
+    {
+        return sCache.get(config);
+    }
+
+    static void put (DrawerToggleHamburger.Config config, Drawable.ConstantState state)
+    {
+        sCache.put(config, state);
+    }
+
+    /**
+     * Change the maximum size of the cache. The most recently used states are kept as long as
+     * they fit, the others stay valid for the drawables using them. The hit and miss counts go on.
+     *
+     * @param maxSize maximum number of cached configurations
+     */
+    public static void setMaxSize (int maxSize)
+    {
+        final LruCache<DrawerToggleHamburger.Config, Drawable.ConstantState> cache = new LruCache<DrawerToggleHamburger.Config, Drawable.ConstantState>(maxSize);
+        // From the least to the most recently used, so the least recently used are evicted first
+        for (Map.Entry<DrawerToggleHamburger.Config, Drawable.ConstantState> entry : sCache.snapshot().entrySet())
+        {
+            cache.put(entry.getKey(), entry.getValue());
+        }
+        sHitCount += sCache.hitCount();
+        sMissCount += sCache.missCount();
+        sCache = cache;
+    }
+
+    /**
+     * @return maximum number of cached configurations
+     */
+    public static int getMaxSize ()
+    {
+        return sCache.maxSize();
+    }
+
+    /**
+     * @return number of cached configurations
+     */
+    public static int getSize ()
+    {
+        return sCache.size();
+    }
+
+    /**
+     * @return number of times a state was found in the cache
+     */
+    public static int getHitCount ()
+    {
+        return sHitCount + sCache.hitCount();
+    }
+
+    /**
+     * @return number of times a state had to be created
+     */
+    public static int getMissCount ()
+    {
+        return sMissCount + sCache.missCount();
+    }
+
+    /**
+     * Drop every cached state.
+     */
+    public static void clear ()
+    {
+        sCache.evictAll();
+    }
+}
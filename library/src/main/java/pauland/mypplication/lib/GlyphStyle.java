@@ -0,0 +1,141 @@
+package pauland.mypplication.lib;
+
+/**
+ * Shape of the glyph when the drawer opens (no <code>android.*</code> dependency).
+ * <p/>
+ * A style does not draw anything: it only describes every bar when the drawer is closed and when
+ * it is opened, {@link GlyphGeometry} interpolates between the two. Every style therefore costs
+ * the same per frame and works with every render mode, keyframe table and atlas.
+ * <p/>
+ * Register a custom style with {@link GlyphStyles#register(GlyphStyle)} to use it with
+ * {@link DrawerToggleHamburger#setStyleShape(int)}.
+ */
+public interface GlyphStyle
+{
+    /**
+     * Describe the bars of the glyph. Only called when the bounds or the configuration of the
+     * glyph changed.
+     *
+     * @param layout    position of the bars of the closed glyph (the usual hamburger)
+     * @param keyframes receives the keyframes of each of the {@link Layout#getBarCount()} bars
+     */
+    void buildKeyframes (Layout layout, Keyframes keyframes);
+
+    /**
+     * Receives the keyframes of the bars.
+     */
+    interface Keyframes
+    {
+        /**
+         * Describe a bar when the drawer is closed and when it is opened. The bar rotates around
+         * an anchor point, which moves from <code>(closedX, closedY)</code> to
+         * <code>(openedX, openedY)</code>.
+         *
+         * @param bar          index of the bar, from the top
+         * @param closedX      anchor x when closed
+         * @param closedY      anchor y when closed
+         * @param openedX      anchor x when opened
+         * @param openedY      anchor y when opened
+         * @param along        position of the anchor along the bar, 0 for its start, 1 for its end
+         * @param across       offset of the anchor from the center line of the bar
+         * @param closedLength length of the bar when closed
+         * @param openedLength length of the bar when opened
+         * @param closedAngle  rotation of the bar when closed, in degrees
+         * @param openedAngle  rotation of the bar when opened, in degrees
+         * @param closedAlpha  opacity of the bar when closed, from 0 to 1
+         * @param openedAlpha  opacity of the bar when opened, from 0 to 1
+         */
+        void setBar (int bar, float closedX, float closedY, float openedX, float openedY, float along, float across, float closedLength, float openedLength, float closedAngle, float openedAngle, float closedAlpha, float openedAlpha);
+    }
+
+    /**
+     * Position of the bars of the closed glyph, in the coordinates of the glyph bounds. The bars
+     * are stacked from the top, evenly spaced.
+     */
+    final class Layout
+    {
+        private int   mBarCount;
+        private float mLeft, mCenterX, mCenterY;
+        private int   mBarWidth, mBarHeight, mSpaceBetweenBars;
+        private int   mTopY;
+
+        Layout ()
+        {
+        }
+
+        void set (int barCount, int left, int top, int width, int height, int paddingLR, int paddingTB, int barHeight)
+        {
+            mBarCount = barCount;
+            // Whole pixels, so that every bar starts on a pixel boundary
+            mSpaceBetweenBars = (height - paddingTB * 2 - barHeight * barCount) / (barCount - 1);
+            mBarWidth = width - paddingLR * 2;
+            mBarHeight = barHeight;
+            mLeft = left + paddingLR;
+            mCenterX = left + width / 2f;
+            mCenterY = top + height / 2f;
+            mTopY = top + paddingTB;
+        }
+
+        public int getBarCount ()
+        {
+            return mBarCount;
+        }
+
+        /**
+         * @return left of the bars
+         */
+        public float getLeft ()
+        {
+            return mLeft;
+        }
+
+        /**
+         * @return horizontal center of the glyph
+         */
+        public float getCenterX ()
+        {
+            return mCenterX;
+        }
+
+        /**
+         * @return vertical center of the glyph
+         */
+        public float getCenterY ()
+        {
+            return mCenterY;
+        }
+
+        public int getBarWidth ()
+        {
+            return mBarWidth;
+        }
+
+        public int getBarHeight ()
+        {
+            return mBarHeight;
+        }
+
+        public int getSpaceBetweenBars ()
+        {
+            return mSpaceBetweenBars;
+        }
+
+        /**
+         * @param bar index of the bar, from the top
+         * @return top of the bar
+         */
+        public int getBarY (int bar)
+        {
+            return mTopY + bar * (mBarHeight + mSpaceBetweenBars);
+        }
+
+        /**
+         * @return vertical center of the stack of bars, halfway between the centers of the first
+         * and the last bars
+         */
+        public float getStackCenterY ()
+        {
+            return mTopY + mBarHeight / 2f + (mBarCount - 1) * (mBarHeight + mSpaceBetweenBars) / 2f;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package pauland.mypplication.lib;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registry of the {@link GlyphStyle}s, giving each one the id used by
+ * {@link DrawerToggleHamburger#setStyleShape(int)}, the configurations and the atlas cache.
+ * <p/>
+ * The built-in styles are registered with the ids {@link GlyphGeometry#STYLE_CROSS},
+ * {@link GlyphGeometry#STYLE_ARROW}, {@link GlyphGeometry#STYLE_CARET} and
+ * {@link GlyphGeometry#STYLE_DOTS}. They work with any number of bars.
+ */
+public final class GlyphStyles
+{
+    /**
+     * The bars cross when the drawer opens, the inner ones fade out
+     */
+    public static final GlyphStyle CROSS = new CrossStyle(false);
+
+    /**
+     * The bars turn into an arrow when the drawer opens
+     */
+    public static final GlyphStyle ARROW = new PivotStyle(35, false);
+
+    /**
+     * The bars turn into a caret when the drawer opens, the inner ones fade out
+     */
+    public static final GlyphStyle CARET = new PivotStyle(40, true);
+
+    /**
+     * The bars are dots (rounded with {@link DrawerToggleHamburger#setRounded(boolean)}), the
+     * first and last ones stretch into a cross when the drawer opens while the others fade out
+     */
+    public static final GlyphStyle DOTS = new CrossStyle(true);
+
+    private static final List<GlyphStyle> sStyles = new ArrayList<GlyphStyle>();
+
+    static
+    {
+        // Same order as the STYLE_* ids
+        sStyles.add(CROSS);
+        sStyles.add(ARROW);
+        sStyles.add(CARET);
+        sStyles.add(DOTS);
+    }
+
+    private GlyphStyles ()
+    {
+    }
+
+    /**
+     * Register a style. Registering the same style again returns the same id.
+     *
+     * @param style the style
+     * @return the id of the style, valid until the process ends
+     */
+    public static synchronized int register (GlyphStyle style)
+    {
+        if (style == null)
+            throw new IllegalArgumentException("style must not be null");
+
+        final int id = sStyles.indexOf(style);
+        if (id >= 0)
+            return id;
+
+        sStyles.add(style);
+        return sStyles.size() - 1;
+    }
+
+    /**
+     * @param id id returned by {@link #register(GlyphStyle)} or one of the built-in ids
+     * @return the style, or null if no style has this id
+     */
+    public static synchronized GlyphStyle get (int id)
+    {
+        return id >= 0 && id < sStyles.size() ? sStyles.get(id) : null;
+    }
+
+    /**
+     * The first and last bars rotate around the center of the glyph, the others fade out.
+     */
+    private static final class CrossStyle implements GlyphStyle
+    {
+        private final boolean mDots;
+
+        CrossStyle (boolean dots)
+        {
+            mDots = dots;
+        }
+
+        @Override
+        public void buildKeyframes (Layout layout, Keyframes keyframes)
+        {
+            final float centerX = layout.getCenterX();
+            final float centerY = layout.getCenterY();
+            final float halfBarHeight = layout.getBarHeight() / 2f;
+            final int barWidth = layout.getBarWidth();
+            final int closedWidth = mDots ? layout.getBarHeight() : barWidth;
+            final int last = layout.getBarCount() - 1;
+
+            keyframes.setBar(0, centerX, layout.getBarY(0) + halfBarHeight, centerX, centerY, 0.5f, 0, closedWidth, barWidth, 0, 45, 1, 1);
+            for (int bar = 1; bar < last; bar++)
+            {
+                final float y = layout.getBarY(bar) + halfBarHeight;
+                keyframes.setBar(bar, centerX, y, centerX, y, 0.5f, 0, closedWidth, closedWidth, 0, 0, 1, 0);
+            }
+            keyframes.setBar(last, centerX, layout.getBarY(last) + halfBarHeight, centerX, centerY, 0.5f, 0, closedWidth, barWidth, 0, -45, 1, 1);
+        }
+    }
+
+    /**
+     * The first and last bars pivot around their outer left corner while getting shorter, the
+     * others join the center of the stack (arrow) or fade out (caret).
+     */
+    private static final class PivotStyle implements GlyphStyle
+    {
+        private final float   mAngle;
+        private final boolean mCaret;
+
+        PivotStyle (float angle, boolean caret)
+        {
+            mAngle = angle;
+            mCaret = caret;
+        }
+
+        @Override
+        public void buildKeyframes (Layout layout, Keyframes keyframes)
+        {
+            final float left = layout.getLeft();
+            final int barWidth = layout.getBarWidth();
+            final int barHeight = layout.getBarHeight();
+            final float halfBarHeight = barHeight / 2f;
+            final int shortWidth = barWidth - barWidth / 2;
+            final float stackCenterY = layout.getStackCenterY();
+            // Top of a bar centered on the stack
+            final float stackTop = stackCenterY - halfBarHeight;
+            final int last = layout.getBarCount() - 1;
+
+            // FIRST BAR: rotates around its top left corner while sliding down
+            final int firstY = layout.getBarY(0);
+            keyframes.setBar(0, left, firstY, left, stackTop, 0, -halfBarHeight, barWidth, shortWidth, 0, -mAngle, 1, 1);
+
+            // INNER BARS
+            for (int bar = 1; bar < last; bar++)
+            {
+                final float y = layout.getBarY(bar) + halfBarHeight;
+                if (mCaret)
+                    keyframes.setBar(bar, left, y, left, y, 0, 0, barWidth, shortWidth, 0, 0, 1, 0);
+                else
+                    keyframes.setBar(bar, layout.getCenterX(), y, layout.getCenterX(), stackCenterY, 0.5f, 0, barWidth, barWidth, 0, 0, 1, 1);
+            }
+
+            // LAST BAR: rotates around its bottom left corner while sliding up
+            final int lastBottom = layout.getBarY(last) + barHeight;
+            final float openedBottom = mCaret ? stackTop + barHeight - barHeight / 2 : stackTop + barHeight;
+            keyframes.setBar(last, left, lastBottom, left, openedBottom, 0, halfBarHeight, barWidth, shortWidth, 0, mAngle, 1, 1);
+        }
+    }
+}
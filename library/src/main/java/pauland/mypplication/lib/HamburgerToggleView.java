@@ -0,0 +1,380 @@
+package pauland.mypplication.lib;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.support.v4.view.GravityCompat;
+import android.support.v4.view.ViewCompat;
+import android.support.v4.widget.DrawerLayout;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+
+/**
+ * Drawer glyph hosted by its own view, to put in a <code>Toolbar</code> or any layout instead of
+ * the <code>ActionBar</code> home button.
+ * <p/>
+ * Unlike {@link DrawerToggleHamburger}, nothing goes through the <code>ActionBar</code>: no
+ * reflection, and a frame of the animation only invalidates the bounds of the glyph, it never
+ * measures or lays out the parent. Clicking the view opens or closes the drawer.
+ * <p/>
+ * <p>Call {@link #setDrawerLayout(DrawerLayout)} once the drawer is restored, then use the view
+ * as the {@link DrawerLayout.DrawerListener} of the drawer, add it to a
+ * {@link DrawerListenerMultiplexer}, or call through to each of the listener methods from your
+ * own.</p>
+ */
+public class HamburgerToggleView extends View implements DrawerListenerMultiplexer.GlyphListener
+{
+    // Default size of the glyph, in dip
+    private static final int DEFAULT_WIDTH  = 36;
+    private static final int DEFAULT_HEIGHT = 34;
+
+    private final DrawerToggleHamburger.TransformDrawable mGlyph;
+    private final GlyphDriver      mDriver;
+    private DrawerLayout           mDrawerLayout;
+    private int                    mOpenDrawerContentDescRes, mCloseDrawerContentDescRes;
+    private QualityPolicy          mQualityPolicy;
+    private QualityPolicy.Listener mQualityListener;
+    // The view is rendered in a hardware layer set by the quality policy
+    private boolean                mHardwareLayer;
+
+    public HamburgerToggleView (Context context)
+    {
+        this(context, null);
+    }
+
+    public HamburgerToggleView (Context context, AttributeSet attrs)
+    {
+        this(context, attrs, 0);
+    }
+
+    public HamburgerToggleView (Context context, AttributeSet attrs, int defStyle)
+    {
+        super(context, attrs, defStyle);
+
+        final int width = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_WIDTH, getResources().getDisplayMetrics());
+        final int height = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_HEIGHT, getResources().getDisplayMetrics());
+        // The glyph only gets the view as callback while attached, see onAttachedToWindow()
+        mGlyph = new DrawerToggleHamburger.TransformDrawable(getResources(), width, height);
+        mDriver = new GlyphDriver(mGlyph, GravityCompat.START);
+        setClickable(true);
+    }
+
+    /**
+     * Link the view to a drawer and synchronize the glyph with its state.
+     *
+     * @param drawerLayout the drawer opened and closed by this view
+     */
+    public void setDrawerLayout (DrawerLayout drawerLayout)
+    {
+        mDrawerLayout = drawerLayout;
+        syncState();
+    }
+
+    /**
+     * Set the content descriptions of the view for accessibility services.
+     *
+     * @param openDrawerContentDescRes  A String resource to describe the "open drawer" action
+     * @param closeDrawerContentDescRes A String resource to describe the "close drawer" action
+     */
+    public void setDrawerContentDescriptions (int openDrawerContentDescRes, int closeDrawerContentDescRes)
+    {
+        mOpenDrawerContentDescRes = openDrawerContentDescRes;
+        mCloseDrawerContentDescRes = closeDrawerContentDescRes;
+        syncState();
+    }
+
+    /**
+     * Set how the glyph is rendered while the drawer is idle, dragged or settling.
+     *
+     * @param qualityPolicy the policy, for example a {@link MotionQualityPolicy}, or null to
+     *                      always render in full quality without layer (default)
+     */
+    public void setQualityPolicy (QualityPolicy qualityPolicy)
+    {
+        mQualityPolicy = qualityPolicy;
+    }
+
+    /**
+     * @param listener notified when the quality policy changes the rendering of the glyph, or null
+     */
+    public void setQualityListener (QualityPolicy.Listener listener)
+    {
+        mQualityListener = listener;
+    }
+
+    /**
+     * Apply a whole configuration of the glyph at once, see
+     * {@link DrawerToggleHamburger#setConfig(DrawerToggleHamburger.Config)}. Only a new size of
+     * the glyph requests a layout.
+     *
+     * @param config the new configuration
+     */
+    public void setConfig (DrawerToggleHamburger.Config config)
+    {
+        final boolean resized = config.getWidth() != mGlyph.getIntrinsicWidth() || config.getHeight() != mGlyph.getIntrinsicHeight();
+        mGlyph.setConfig(config);
+        if (resized)
+        {
+            updateGlyphBounds();
+            requestLayout();
+        }
+    }
+
+    /**
+     * @return the current configuration of the glyph
+     */
+    public DrawerToggleHamburger.Config getConfig ()
+    {
+        return mGlyph.getConfig();
+    }
+
+    /**
+     * @see DrawerToggleHamburger#morphToStyle(int, long)
+     */
+    public void morphToStyle (int style, long durationMs)
+    {
+        if (GlyphStyles.get(style) == null)
+            throw new IllegalArgumentException("Unknown style " + style);
+
+        mGlyph.morphToStyle(style, durationMs);
+    }
+
+    /**
+     * @see DrawerToggleHamburger#setFrameClock(FrameClock)
+     */
+    public void setFrameClock (FrameClock frameClock)
+    {
+        mGlyph.setFrameClock(frameClock);
+        mDriver.setFrameClock(frameClock);
+    }
+
+    /**
+     * @see DrawerToggleHamburger#setProgressMapper(GlyphProgressMapper)
+     */
+    public void setProgressMapper (GlyphProgressMapper progressMapper)
+    {
+        if (progressMapper == null)
+            throw new IllegalArgumentException("progressMapper must not be null");
+
+        mDriver.setProgressMapper(progressMapper);
+    }
+
+    /**
+     * @see DrawerToggleHamburger#setAnimationDuration(long)
+     */
+    public void setAnimationDuration (long durationMs)
+    {
+        if (durationMs < 0)
+            throw new IllegalArgumentException("durationMs must be >= 0");
+
+        mDriver.setAnimationDuration(durationMs);
+    }
+
+    /**
+     * @see DrawerToggleHamburger#setDrawerGravity(int)
+     */
+    public void setDrawerGravity (int gravity)
+    {
+        if (!GlyphDriver.isValidGravity(gravity))
+            throw new IllegalArgumentException("Unknown gravity " + gravity);
+
+        mDriver.setGravity(gravity);
+        syncState();
+    }
+
+    /**
+     * Synchronize the glyph and the content description with the state of the drawer.
+     */
+    public void syncState ()
+    {
+        if (mDrawerLayout == null)
+            return;
+
+        final boolean open = mDrawerLayout.isDrawerOpen(mDriver.getGravity());
+        mDriver.sync(open);
+        updateContentDescription(open);
+    }
+
+    private void updateContentDescription (boolean open)
+    {
+        final int contentDescRes = open ? mCloseDrawerContentDescRes : mOpenDrawerContentDescRes;
+        if (contentDescRes != 0)
+        {
+            setContentDescription(getContext().getString(contentDescRes));
+        }
+    }
+
+    @Override
+    public boolean performClick ()
+    {
+        final boolean handled = super.performClick();
+        if (mDrawerLayout == null)
+            return handled;
+
+        final int gravity = mDriver.getGravity();
+        final boolean close = mDrawerLayout.isDrawerVisible(gravity);
+        mDriver.onToggle(!close);
+        if (close)
+        {
+            mDrawerLayout.closeDrawer(gravity);
+        }
+        else
+        {
+            mDrawerLayout.openDrawer(gravity);
+        }
+        return true;
+    }
+
+    @Override
+    protected void onMeasure (int widthMeasureSpec, int heightMeasureSpec)
+    {
+        final int width = mGlyph.getIntrinsicWidth() + getPaddingLeft() + getPaddingRight();
+        final int height = mGlyph.getIntrinsicHeight() + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged (int w, int h, int oldw, int oldh)
+    {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateGlyphBounds();
+    }
+
+    /**
+     * Center the glyph in the content area of the view.
+     */
+    private void updateGlyphBounds ()
+    {
+        final int glyphWidth = mGlyph.getIntrinsicWidth();
+        final int glyphHeight = mGlyph.getIntrinsicHeight();
+        final int left = getPaddingLeft() + (getWidth() - getPaddingLeft() - getPaddingRight() - glyphWidth) / 2;
+        final int top = getPaddingTop() + (getHeight() - getPaddingTop() - getPaddingBottom() - glyphHeight) / 2;
+        mGlyph.setBounds(left, top, left + glyphWidth, top + glyphHeight);
+    }
+
+    @Override
+    protected void onDraw (Canvas canvas)
+    {
+        mGlyph.draw(canvas);
+    }
+
+    @Override
+    protected boolean verifyDrawable (Drawable who)
+    {
+        return who == mGlyph || super.verifyDrawable(who);
+    }
+
+    @Override
+    public void onDrawerSlide (View drawerView, float slideOffset)
+    {
+        if (mDriver.isDrawer(drawerView))
+        {
+            mDriver.onSlide(slideOffset);
+        }
+    }
+
+    @Override
+    public void onGlyphProgress (View drawerView, float slideOffset, float progress)
+    {
+        if (mDriver.isDrawer(drawerView))
+        {
+            mDriver.onSlide(slideOffset, progress);
+        }
+    }
+
+    @Override
+    public void onDrawerOpened (View drawerView)
+    {
+        if (!mDriver.isDrawer(drawerView))
+            return;
+
+        mDriver.onOpenedOrClosed(true);
+        updateContentDescription(true);
+    }
+
+    @Override
+    public void onDrawerClosed (View drawerView)
+    {
+        if (!mDriver.isDrawer(drawerView))
+            return;
+
+        mDriver.onOpenedOrClosed(false);
+        updateContentDescription(false);
+    }
+
+    @Override
+    public void onDrawerStateChanged (int newState)
+    {
+        mDriver.onStateChanged(newState);
+
+        final QualityPolicy policy = mQualityPolicy;
+        final int quality = policy != null ? policy.getQuality(newState) : QualityPolicy.QUALITY_FULL;
+        final boolean hardwareLayer = policy != null && policy.isHardwareLayerEnabled(newState);
+        applyQuality(newState, quality, hardwareLayer);
+    }
+
+    @Override
+    protected void onAttachedToWindow ()
+    {
+        super.onAttachedToWindow();
+        mGlyph.setCallback(this);
+        updateGlyphVisibility();
+    }
+
+    /**
+     * A view detached in the middle of a drag never gets its idle state: drop the layer and the
+     * motion quality now, so the view is attached again as it is at rest. The glyph loses its
+     * callback, its animations then stop drawing it.
+     */
+    @Override
+    protected void onDetachedFromWindow ()
+    {
+        applyQuality(DrawerLayout.STATE_IDLE, QualityPolicy.QUALITY_FULL, false);
+        mGlyph.setCallback(null);
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onVisibilityChanged (View changedView, int visibility)
+    {
+        super.onVisibilityChanged(changedView, visibility);
+        // Can be called by the View constructor, before the glyph exists
+        if (mGlyph != null)
+        {
+            updateGlyphVisibility();
+        }
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged (int visibility)
+    {
+        super.onWindowVisibilityChanged(visibility);
+        updateGlyphVisibility();
+    }
+
+    /**
+     * Hide the glyph while the view, one of its ancestors or its window is hidden, so its
+     * animations only move it without drawing.
+     */
+    private void updateGlyphVisibility ()
+    {
+        mGlyph.setVisible(isShown() && getWindowVisibility() == VISIBLE, false);
+    }
+
+    private void applyQuality (int state, int quality, boolean hardwareLayer)
+    {
+        final int oldQuality = mGlyph.getQuality();
+        final boolean oldHardwareLayer = mHardwareLayer;
+        mGlyph.setQuality(quality);
+        if (hardwareLayer != oldHardwareLayer)
+        {
+            ViewCompat.setLayerType(this, hardwareLayer ? ViewCompat.LAYER_TYPE_HARDWARE : ViewCompat.LAYER_TYPE_NONE, null);
+            mHardwareLayer = hardwareLayer;
+        }
+        if (mQualityListener != null && (quality != oldQuality || hardwareLayer != oldHardwareLayer))
+        {
+            mQualityListener.onQualityChanged(state, quality, hardwareLayer);
+        }
+    }
+}
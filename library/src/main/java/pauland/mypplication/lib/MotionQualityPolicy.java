@@ -0,0 +1,33 @@
+package pauland.mypplication.lib;
+
+import android.support.v4.widget.DrawerLayout;
+
+/**
+ * Full quality while the drawer is idle, motion quality (and optionally a hardware layer) while it
+ * is dragged or settling.
+ */
+public final class MotionQualityPolicy implements QualityPolicy
+{
+    private final boolean mHardwareLayer;
+
+    /**
+     * @param hardwareLayer true to render the view hosting the glyph in a hardware layer while the
+     *                      drawer moves
+     */
+    public MotionQualityPolicy (boolean hardwareLayer)
+    {
+        mHardwareLayer = hardwareLayer;
+    }
+
+    @Override
+    public int getQuality (int drawerState)
+    {
+        return drawerState == DrawerLayout.STATE_IDLE ? QUALITY_FULL : QUALITY_MOTION;
+    }
+
+    @Override
+    public boolean isHardwareLayerEnabled (int drawerState)
+    {
+        return mHardwareLayer && drawerState != DrawerLayout.STATE_IDLE;
+    }
+}
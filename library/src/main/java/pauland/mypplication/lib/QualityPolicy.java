@@ -0,0 +1,46 @@
+package pauland.mypplication.lib;
+
+/**
+ * Chooses how the glyph is rendered for each state of the drawer, see
+ * {@link DrawerToggleHamburger#setQualityPolicy(QualityPolicy)}.
+ */
+public interface QualityPolicy
+{
+    /**
+     * The glyph is computed with the configured precision and dithered
+     */
+    int QUALITY_FULL = 0;
+
+    /**
+     * The glyph snaps to precomputed frames and is not dithered, the cheapest way to follow a
+     * moving drawer
+     */
+    int QUALITY_MOTION = 1;
+
+    /**
+     * @param drawerState one of <code>DrawerLayout.STATE_IDLE</code>,
+     *                    <code>DrawerLayout.STATE_DRAGGING</code> or
+     *                    <code>DrawerLayout.STATE_SETTLING</code>
+     * @return {@link #QUALITY_FULL} or {@link #QUALITY_MOTION}
+     */
+    int getQuality (int drawerState);
+
+    /**
+     * @param drawerState one of the <code>DrawerLayout.STATE_*</code> values
+     * @return true to render the view hosting the glyph in a hardware layer
+     */
+    boolean isHardwareLayerEnabled (int drawerState);
+
+    /**
+     * Notified when the quality or the hardware layer of the glyph change.
+     */
+    interface Listener
+    {
+        /**
+         * @param drawerState   the new state of the drawer
+         * @param quality       the new quality of the glyph
+         * @param hardwareLayer true if the view hosting the glyph now uses a hardware layer
+         */
+        void onQualityChanged (int drawerState, int quality, boolean hardwareLayer);
+    }
+}
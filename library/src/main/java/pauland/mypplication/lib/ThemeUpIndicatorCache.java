@@ -0,0 +1,105 @@
+package pauland.mypplication.lib;
+
+import android.app.Activity;
+import android.content.res.Configuration;
+import android.content.res.TypedArray;
+import android.graphics.drawable.Drawable;
+import android.support.v4.util.LruCache;
+import android.util.TypedValue;
+
+/**
+ * Process-wide cache of the home-as-up indicator defined by the Activity themes.
+ * <p/>
+ * The drawable is loaded once per theme indicator resource and configuration qualifiers it can
+ * depend on, every caller then gets its own copy created from the cached
+ * {@link Drawable.ConstantState}. Must only be used from the main thread.
+ */
+final class ThemeUpIndicatorCache
+{
+    private static final int[] THEME_ATTRS = new int[]{android.R.attr.homeAsUpIndicator};
+    private static final int   MAX_SIZE    = 8;
+
+    private static final LruCache<Key, Drawable.ConstantState> sCache = new LruCache<Key, Drawable.ConstantState>(MAX_SIZE);
+    // Only used from the main thread, resolved again on every configuration change
+    private static final TypedValue                            sValue = new TypedValue();
+
+    private ThemeUpIndicatorCache ()
+    {
+    }
+
+    /**
+     * @return the key of the up indicator of the Activity theme in its current configuration
+     */
+    static Key getKey (Activity activity)
+    {
+        final int resourceId = activity.getTheme().resolveAttribute(android.R.attr.homeAsUpIndicator, sValue, true) ? sValue.resourceId : 0;
+        final Configuration configuration = activity.getResources().getConfiguration();
+        // Of the screen layout, only the direction can select a variant (mirrored indicator). The
+        // orientation is left out: an indicator never depends on it, rotating must not miss.
+        return new Key(resourceId, activity.getResources().getDisplayMetrics().densityDpi, configuration.uiMode, configuration.screenLayout & Configuration.SCREENLAYOUT_LAYOUTDIR_MASK);
+    }
+
+    /**
+     * @return a new instance of the up indicator of the Activity theme, or null if none is defined
+     */
+    static Drawable get (Activity activity)
+    {
+        final Key key = getKey(activity);
+        if (key.resourceId != 0)
+        {
+            final Drawable.ConstantState state = sCache.get(key);
+            if (state != null)
+            {
+                return state.newDrawable(activity.getResources());
+            }
+        }
+
+        final TypedArray a = activity.obtainStyledAttributes(THEME_ATTRS);
+        final Drawable result = a.getDrawable(0);
+        a.recycle();
+
+        if (key.resourceId != 0 && result != null && result.getConstantState() != null)
+        {
+            sCache.put(key, result.getConstantState());
+        }
+        return result;
+    }
+
+    /**
+     * The theme indicator resource and the configuration qualifiers selecting its variant.
+     */
+    static final class Key
+    {
+        final int resourceId, densityDpi, uiMode, layoutDirection;
+
+        Key (int resourceId, int densityDpi, int uiMode, int layoutDirection)
+        {
+            this.resourceId = resourceId;
+            this.densityDpi = densityDpi;
+            this.uiMode = uiMode;
+            this.layoutDirection = layoutDirection;
+        }
+
+        @Override
+        public boolean equals (Object o)
+        {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+
+            final Key key = (Key) o;
+            return resourceId == key.resourceId && densityDpi == key.densityDpi && uiMode == key.uiMode && layoutDirection == key.layoutDirection;
+        }
+
+        @Override
+        public int hashCode ()
+        {
+            int result = resourceId;
+            result = 31 * result + densityDpi;
+            result = 31 * result + uiMode;
+            result = 31 * result + layoutDirection;
+            return result;
+        }
+    }
+}